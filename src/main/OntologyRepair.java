@@ -7,6 +7,7 @@ import main.operations.KernelContraction;
 import main.operations.PartialMeetContraction;
 import main.operations.SRWPseudoContraction;
 import main.operations.Revision;
+import main.operations.metrics.Metrics;
 import test.PerformanceTest;
 
 /**
@@ -37,6 +38,66 @@ public class OntologyRepair {
                description = "Maximum number of elements in the computer kernel or remainder set")
     private Integer maxSetSize = Integer.MAX_VALUE;
 
+    @Parameter(names = { "--module" },
+               description = "Restricts the search to the locality-based module of the formula")
+    private boolean moduleExtraction = false;
+
+    @Parameter(names = { "--signature-expansion" },
+               description = "Expands each kernel from the axioms that share entities with the formula, one layer at a time (kernel contraction and revision)")
+    private boolean signatureExpansion = false;
+
+    @Parameter(names = { "--optimized" },
+               description = "Prunes the hitting set tree by reuse and closing of nodes (kernel contraction); computes the full kernel set, ignoring --queue-limit and --remainder-limit, and does not apply with --threads or --marco")
+    private boolean optimized = false;
+
+    @Parameter(names = { "--divide-and-conquer" },
+               description = "Shrinks each kernel by divide and conquer, in the style of QuickXplain (kernel contraction)")
+    private boolean divideAndConquer = false;
+
+    @Parameter(names = { "--reasoner" },
+               description = "Reasoner used in the entailment checks: hermit, elk or auto (cheapest complete reasoner for the ontology's profile). ELK is not bundled: elk needs its jar on the classpath, and without it auto always uses HermiT")
+    private String reasonerName = "hermit";
+
+    @Parameter(names = { "--check-timeout" },
+               description = "Maximum time of each entailment check, in milliseconds (0 for no limit)")
+    private long checkTimeout = 0;
+
+    @Parameter(names = { "--timeout" },
+               description = "Maximum time of the operation, in milliseconds (0 for no limit); the result is partial if it runs out")
+    private long timeout = 0;
+
+    @Parameter(names = { "--threads" },
+               description = "Number of threads that compute the kernel or remainder set")
+    private int threads = 1;
+
+    @Parameter(names = { "--stream" },
+               description = "Consumes the kernels as soon as they are found (kernel contraction)")
+    private boolean stream = false;
+
+    @Parameter(names = { "--incision" },
+               description = "Incision function: union (every kernel element) or minimum (a minimum hitting set of the kernel set); kernel contraction and revision")
+    private String incisionName = "union";
+
+    @Parameter(names = { "--cheapest-incision" },
+               description = "Searches the incision with fewest axioms directly, without computing the whole kernel set (kernel contraction)")
+    private boolean cheapestIncision = false;
+
+    @Parameter(names = { "--kernel-duality" },
+               description = "Computes the remainder set as the complements of the minimal hitting sets of the kernel set (partial meet contraction and SRW pseudo-contraction)")
+    private boolean kernelDuality = false;
+
+    @Parameter(names = { "--marco" },
+               description = "Enumerates the kernels and remainders together, in the style of the MARCO algorithm (kernel contraction, partial meet contraction and SRW pseudo-contraction)")
+    private boolean marco = false;
+
+    @Parameter(names = { "--result-store" },
+               description = "Directory where the computed kernel and remainder sets are stored and reused when the input is unchanged")
+    private String resultStoreDirectory;
+
+    @Parameter(names = { "--metrics" },
+               description = "Prints the counters and latency histograms of the operation at the end")
+    private boolean printMetrics = false;
+
     @Parameter(names = { "--core-retainment" },
             description = "Minimality postulate used for the kernel")
     private boolean coreRetainment = false;
@@ -68,12 +129,33 @@ public class OntologyRepair {
             if (coreRetainment) {
                 KernelContraction knc = new KernelContraction(inputFileName, outputFileName, formulaString,
                                                              maxQueueSize, maxSetSize);
+                knc.setUseModuleExtraction(moduleExtraction);
+                knc.setUseSignatureExpansion(signatureExpansion);
+                knc.setOptimized(optimized);
+                knc.setUseDivideAndConquer(divideAndConquer);
+                knc.setReasoner(reasonerName);
+                knc.setIncisionFunction(incisionName);
+                knc.setCheckTimeout(checkTimeout);
+                knc.setTimeout(timeout);
+                knc.setResultStoreDirectory(resultStoreDirectory);
+                knc.setThreads(threads);
+                knc.setMarco(marco);
+                knc.setStreaming(stream);
+                knc.setCheapestIncision(cheapestIncision);
                 knc.run();
             }
 
             else if (relevance) {
                 PartialMeetContraction pmc = new PartialMeetContraction(inputFileName, outputFileName, formulaString,
                                                                         maxQueueSize, maxSetSize);
+                pmc.setUseModuleExtraction(moduleExtraction);
+                pmc.setReasoner(reasonerName);
+                pmc.setCheckTimeout(checkTimeout);
+                pmc.setTimeout(timeout);
+                pmc.setThreads(threads);
+                pmc.setMarco(marco);
+                pmc.setKernelDuality(kernelDuality);
+                pmc.setResultStoreDirectory(resultStoreDirectory);
                 pmc.run();
             }
         }
@@ -81,14 +163,33 @@ public class OntologyRepair {
         else if (revision) {
             Revision rev = new Revision(inputFileName, outputFileName, formulaString,
                                         maxQueueSize, maxSetSize);
+            rev.setUseModuleExtraction(moduleExtraction);
+            rev.setUseSignatureExpansion(signatureExpansion);
+            rev.setReasoner(reasonerName);
+            rev.setIncisionFunction(incisionName);
+            rev.setCheckTimeout(checkTimeout);
+            rev.setTimeout(timeout);
+            rev.setResultStoreDirectory(resultStoreDirectory);
+            rev.setThreads(threads);
             rev.run();
         }
 
         else if (srwPseudoContraction) {
             SRWPseudoContraction srw = new SRWPseudoContraction(inputFileName, outputFileName, formulaString,
                                                                 maxQueueSize, maxSetSize);
+            srw.setUseModuleExtraction(moduleExtraction);
+            srw.setReasoner(reasonerName);
+            srw.setCheckTimeout(checkTimeout);
+            srw.setTimeout(timeout);
+            srw.setThreads(threads);
+            srw.setMarco(marco);
+            srw.setKernelDuality(kernelDuality);
+            srw.setResultStoreDirectory(resultStoreDirectory);
             srw.run();
         }
+
+        if (printMetrics)
+            System.out.println(Metrics.getDefault().report());
     }
 
     private void runTests() {
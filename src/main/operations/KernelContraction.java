@@ -1,8 +1,14 @@
 package main.operations;
 
 import main.operations.auxiliars.AlternativeOWLExpressionParser;
+import main.operations.auxiliars.PartialResults;
+import main.operations.auxiliars.ResultStore;
+import main.operations.blackbox.reasoner.ReasonerBackend;
+import main.operations.blackbox.reasoner.ReasonerBackends;
+import main.operations.blackbox.reasoner.ReasonerTimings;
 import main.operations.contraction.KernelContractor;
-import main.operations.incisionfunction.IncisionFunctionUnion;
+import main.operations.incisionfunction.IncisionFunction;
+import main.operations.incisionfunction.IncisionFunctions;
 import org.semanticweb.HermiT.ReasonerFactory;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
@@ -27,6 +33,19 @@ public class KernelContraction {
     private String formulaString;
     private Integer maxKernelSize;
     private Integer maxQueueSize;
+    private boolean useModuleExtraction = false;
+    private boolean useSignatureExpansion = false;
+    private boolean optimized = false;
+    private boolean useDivideAndConquer = false;
+    private String reasonerName = "hermit";
+    private long checkTimeout = 0;
+    private long timeout = 0;
+    private int threads = 1;
+    private boolean marco = false;
+    private boolean streaming = false;
+    private String resultStoreDirectory;
+    private String incisionName = IncisionFunctions.UNION;
+    private boolean cheapestIncision = false;
 
     public KernelContraction(String inputFileName, String outputFileName, String formulaString,
                              Integer maxQueueSize, Integer maxKernelSize) {
@@ -37,6 +56,152 @@ public class KernelContraction {
         this.maxQueueSize = maxQueueSize;
     }
 
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the kernels are shrunk by divide and conquer.
+     *
+     * @param useDivideAndConquer
+     *            {@code true} to use the divide-and-conquer strategy
+     */
+    public void setUseDivideAndConquer(boolean useDivideAndConquer) {
+        this.useDivideAndConquer = useDivideAndConquer;
+    }
+
+    /**
+     * Sets whether the hitting set tree is pruned by reuse and closing of
+     * nodes. The optimized algorithm computes the full kernel set, ignoring
+     * the limits of the queue and of the kernel set.
+     *
+     * @param optimized
+     *            {@code true} to use the optimized algorithm
+     */
+    public void setOptimized(boolean optimized) {
+        this.optimized = optimized;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability from
+     * the formula, one layer at a time.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Sets the reasoner backend, or "auto" to choose the cheapest reasoner
+     * that is complete for the ontology's profile.
+     *
+     * @param reasonerName
+     *            the name of the reasoner backend
+     */
+    public void setReasoner(String reasonerName) {
+        this.reasonerName = reasonerName;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. An operation that runs out of
+     * time saves a partial result, marked with an rdfs:comment.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the number of threads that compute the kernel set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders, in the style of the MARCO algorithm.
+     *
+     * @param marco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setMarco(boolean marco) {
+        this.marco = marco;
+    }
+
+    /**
+     * Sets whether the incision function consumes the kernels as soon as
+     * they are found, instead of waiting for the whole kernel set.
+     *
+     * @param streaming
+     *            {@code true} to stream the kernels
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Sets the directory of the store of the results of previous
+     * computations, so that an operation repeated on the same input does not
+     * search again.
+     *
+     * @param resultStoreDirectory
+     *            the directory of the result store, or {@code null} to
+     *            disable it
+     */
+    public void setResultStoreDirectory(String resultStoreDirectory) {
+        this.resultStoreDirectory = resultStoreDirectory;
+    }
+
+    /**
+     * Sets the incision function: "union" removes every element of the
+     * kernel set, "minimum" a hitting set of the kernel set with fewest
+     * axioms.
+     *
+     * @param incisionName
+     *            the name of the incision function
+     */
+    public void setIncisionFunction(String incisionName) {
+        this.incisionName = incisionName;
+    }
+
+    /**
+     * Sets whether the cheapest incision is searched directly, stopping at
+     * the first one found instead of computing the whole kernel set.
+     *
+     * @param cheapestIncision
+     *            {@code true} to search the cheapest incision
+     */
+    public void setCheapestIncision(boolean cheapestIncision) {
+        this.cheapestIncision = cheapestIncision;
+    }
+
     public void run() {
         OWLOntologyManager manager;
         OWLOntology ontology;
@@ -57,11 +222,47 @@ public class KernelContraction {
                     String.format("Bad formula: \n\t%s\n", formulaString));
             return;
         }
+        Logger.getLogger("KC").log(Level.INFO, "Selecting the reasoner...");
+        ReasonerBackend backend;
+        try {
+            backend = ReasonerBackends.select(reasonerName, ontology.getAxioms(), entailment);
+        } catch (OWLException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (backend == null) {
+            Logger.getLogger("KC").log(Level.SEVERE,
+                    String.format("Unknown or unavailable reasoner '%s'.\n", reasonerName));
+            return;
+        }
+        Logger.getLogger("KC").log(Level.INFO,
+                String.format("Using the reasoner '%s'.", backend.getName()));
+        IncisionFunction sigma = IncisionFunctions.get(incisionName);
+        if (sigma == null) {
+            Logger.getLogger("KC").log(Level.SEVERE,
+                    String.format("Unknown incision function '%s'.\n", incisionName));
+            return;
+        }
         Logger.getLogger("KC").log(Level.INFO, "Creating the kernel contractor...");
+        // HermiT computes the closure, which needs every query of the
+        // inferred axiom generators
         KernelContractor kernelContractor = new KernelContractor(manager,
-                new ReasonerFactory(), new IncisionFunctionUnion());
+                new ReasonerFactory(), sigma);
+        kernelContractor.setReasonerBackend(backend);
         kernelContractor.setMaxKernelElements(maxKernelSize);
         kernelContractor.setMaxQueueSize(maxQueueSize);
+        kernelContractor.setUseModuleExtraction(useModuleExtraction);
+        kernelContractor.setUseSignatureExpansion(useSignatureExpansion);
+        kernelContractor.setOptimized(optimized);
+        kernelContractor.setUseDivideAndConquer(useDivideAndConquer);
+        kernelContractor.setCheckTimeout(checkTimeout);
+        kernelContractor.setTimeout(timeout);
+        if (resultStoreDirectory != null)
+            kernelContractor.setResultStore(new ResultStore(new File(resultStoreDirectory)));
+        kernelContractor.setThreads(threads);
+        kernelContractor.setUseMarco(marco);
+        kernelContractor.setStreaming(streaming);
+        kernelContractor.setCheapestIncision(cheapestIncision);
         Logger.getLogger("KC").log(Level.INFO, "Executing the operation...");
         OWLOntology inferredOntology;
         try {
@@ -71,6 +272,11 @@ public class KernelContraction {
             e.printStackTrace();
             return;
         }
+        if (kernelContractor.isPartial()) {
+            Logger.getLogger("KC").log(Level.WARNING,
+                    "The operation has run out of time: the result is partial.");
+            PartialResults.mark(manager, inferredOntology);
+        }
         Logger.getLogger("KC").log(Level.INFO, "Saving...");
         try {
             OutputStream s = new FileOutputStream(outputFileName);
@@ -83,5 +289,6 @@ public class KernelContraction {
         }
         Logger.getLogger("KC").log(Level.INFO,
                 String.format("Success! Ontology saved to '%s'.\n", outputFileName));
+        Logger.getLogger("KC").log(Level.INFO, "Reasoner timings: " + ReasonerTimings.summary());
     }
 }
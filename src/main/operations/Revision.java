@@ -1,7 +1,13 @@
 package main.operations;
 
 import main.operations.auxiliars.AlternativeOWLExpressionParser;
-import main.operations.incisionfunction.IncisionFunctionUnion;
+import main.operations.auxiliars.PartialResults;
+import main.operations.auxiliars.ResultStore;
+import main.operations.blackbox.reasoner.ReasonerBackend;
+import main.operations.blackbox.reasoner.ReasonerBackends;
+import main.operations.blackbox.reasoner.ReasonerTimings;
+import main.operations.incisionfunction.IncisionFunction;
+import main.operations.incisionfunction.IncisionFunctions;
 import main.operations.revision.Revisor;
 import org.semanticweb.HermiT.ReasonerFactory;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -26,6 +32,14 @@ public class Revision {
     private String formulaString;
     private Integer maxQueueSize;
     private Integer maxSetSize;
+    private boolean useModuleExtraction = false;
+    private boolean useSignatureExpansion = false;
+    private String reasonerName = "hermit";
+    private long checkTimeout = 0;
+    private long timeout = 0;
+    private int threads = 1;
+    private String resultStoreDirectory;
+    private String incisionName = IncisionFunctions.UNION;
 
     public Revision (String inputFileName, String outputFileName, String formulaString,
                      Integer maxQueueSize, Integer maxSetSize) {
@@ -36,6 +50,97 @@ public class Revision {
         this.maxSetSize = maxSetSize;
     }
 
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability from
+     * the formula, one layer at a time.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Sets the reasoner backend, or "auto" to choose the cheapest reasoner
+     * that is complete for the ontology's profile.
+     *
+     * @param reasonerName
+     *            the name of the reasoner backend
+     */
+    public void setReasoner(String reasonerName) {
+        this.reasonerName = reasonerName;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. An operation that runs out of
+     * time saves a partial result, marked with an rdfs:comment.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the number of threads that compute the kernel set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the directory of the store of the results of previous
+     * computations, so that an operation repeated on the same input does not
+     * search again.
+     *
+     * @param resultStoreDirectory
+     *            the directory of the result store, or {@code null} to
+     *            disable it
+     */
+    public void setResultStoreDirectory(String resultStoreDirectory) {
+        this.resultStoreDirectory = resultStoreDirectory;
+    }
+
+    /**
+     * Sets the incision function: "union" removes every element of the
+     * kernel set, "minimum" a hitting set of the kernel set with fewest
+     * axioms.
+     *
+     * @param incisionName
+     *            the name of the incision function
+     */
+    public void setIncisionFunction(String incisionName) {
+        this.incisionName = incisionName;
+    }
+
     public void run() {
         OWLOntologyManager manager;
         OWLOntology ontology;
@@ -56,10 +161,41 @@ public class Revision {
                     String.format("Bad formula: \n\t%s\n", formulaString));
             return;
         }
+        Logger.getLogger("RV").log(Level.INFO, "Selecting the reasoner...");
+        ReasonerBackend backend;
+        try {
+            backend = ReasonerBackends.select(reasonerName, ontology.getAxioms(), entailment);
+        } catch (OWLException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (backend == null) {
+            Logger.getLogger("RV").log(Level.SEVERE,
+                    String.format("Unknown or unavailable reasoner '%s'.\n", reasonerName));
+            return;
+        }
+        Logger.getLogger("RV").log(Level.INFO,
+                String.format("Using the reasoner '%s'.", backend.getName()));
+        IncisionFunction sigma = IncisionFunctions.get(incisionName);
+        if (sigma == null) {
+            Logger.getLogger("RV").log(Level.SEVERE,
+                    String.format("Unknown incision function '%s'.\n", incisionName));
+            return;
+        }
         Logger.getLogger("RV").log(Level.INFO, "Creating the pseudo-contractor...");
-        Revisor revisor = new Revisor(manager, new ReasonerFactory(), new IncisionFunctionUnion());
+        // HermiT computes the closure, which needs every query of the
+        // inferred axiom generators
+        Revisor revisor = new Revisor(manager, new ReasonerFactory(), sigma);
+        revisor.setReasonerBackend(backend);
         revisor.setMaxSetElements(maxSetSize);
         revisor.setMaxQueueSize(maxQueueSize);
+        revisor.setUseModuleExtraction(useModuleExtraction);
+        revisor.setUseSignatureExpansion(useSignatureExpansion);
+        revisor.setCheckTimeout(checkTimeout);
+        revisor.setTimeout(timeout);
+        if (resultStoreDirectory != null)
+            revisor.setResultStore(new ResultStore(new File(resultStoreDirectory)));
+        revisor.setThreads(threads);
         Logger.getLogger("RV").log(Level.INFO, "Executing the operation...");
         OWLOntology inferredOntology;
         try {
@@ -69,6 +205,11 @@ public class Revision {
             e.printStackTrace();
             return;
         }
+        if (revisor.isPartial()) {
+            Logger.getLogger("RV").log(Level.WARNING,
+                    "The operation has run out of time: the result is partial.");
+            PartialResults.mark(manager, inferredOntology);
+        }
         Logger.getLogger("RV").log(Level.INFO, "Saving...");
         try {
             OutputStream s = new FileOutputStream(outputFileName);
@@ -81,5 +222,6 @@ public class Revision {
         }
         Logger.getLogger("RV").log(Level.INFO,
                 String.format("Success! Ontology saved to '%s'.\n", outputFileName));
+        Logger.getLogger("RV").log(Level.INFO, "Reasoner timings: " + ReasonerTimings.summary());
     }
 }
@@ -8,9 +8,13 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import main.operations.auxiliars.AlternativeOWLExpressionParser;
+import main.operations.auxiliars.PartialResults;
+import main.operations.auxiliars.ResultStore;
+import main.operations.blackbox.reasoner.ReasonerBackend;
+import main.operations.blackbox.reasoner.ReasonerBackends;
+import main.operations.blackbox.reasoner.ReasonerTimings;
 import main.operations.selectionfunctions.SelectionFunctionFull;
 import main.operations.srwpseudocontraction.SRWPseudoContractor;
-import org.semanticweb.HermiT.ReasonerFactory;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLException;
@@ -31,6 +35,14 @@ public class SRWPseudoContraction {
     private String formulaString;
     private Integer maxQueueSize;
     private Integer maxRemainderSize;
+    private boolean useModuleExtraction = false;
+    private String reasonerName = "hermit";
+    private long checkTimeout = 0;
+    private long timeout = 0;
+    private int threads = 1;
+    private boolean marco = false;
+    private boolean kernelDuality = false;
+    private String resultStoreDirectory;
 
     public SRWPseudoContraction(String inputFileName, String outputFileName, String formulaString,
                                 Integer maxQueueSize, Integer maxRemainderSize) {
@@ -42,6 +54,97 @@ public class SRWPseudoContraction {
         this.maxRemainderSize = maxRemainderSize;
     }
 
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Sets the reasoner backend, or "auto" to choose the cheapest reasoner
+     * that is complete for the ontology's profile.
+     *
+     * @param reasonerName
+     *            the name of the reasoner backend
+     */
+    public void setReasoner(String reasonerName) {
+        this.reasonerName = reasonerName;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. An operation that runs out of
+     * time saves a partial result, marked with an rdfs:comment.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the number of threads that compute the remainder set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets whether the remainder set is computed by the combined enumeration of
+     * kernels and remainders, in the style of the MARCO algorithm.
+     *
+     * @param marco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setMarco(boolean marco) {
+        this.marco = marco;
+    }
+
+    /**
+     * Sets whether the remainder set is computed from the kernel set, as
+     * the complements of its minimal hitting sets, instead of by the Resina
+     * algorithm.
+     *
+     * @param kernelDuality
+     *            {@code true} to use the kernel duality
+     */
+    public void setKernelDuality(boolean kernelDuality) {
+        this.kernelDuality = kernelDuality;
+    }
+
+    /**
+     * Sets the directory of the store of the results of previous
+     * computations, so that an operation repeated on the same input does not
+     * search again.
+     *
+     * @param resultStoreDirectory
+     *            the directory of the result store, or {@code null} to
+     *            disable it
+     */
+    public void setResultStoreDirectory(String resultStoreDirectory) {
+        this.resultStoreDirectory = resultStoreDirectory;
+    }
+
     public void run() {
         OWLOntologyManager manager;
         OWLOntology ontology;
@@ -62,11 +165,34 @@ public class SRWPseudoContraction {
                     String.format("Bad formula: \n\t%s\n", formulaString));
             return;
         }
+        Logger.getLogger("SRW").log(Level.INFO, "Selecting the reasoner...");
+        ReasonerBackend backend;
+        try {
+            backend = ReasonerBackends.select(reasonerName, ontology.getAxioms(), entailment);
+        } catch (OWLException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (backend == null) {
+            Logger.getLogger("SRW").log(Level.SEVERE,
+                    String.format("Unknown or unavailable reasoner '%s'.\n", reasonerName));
+            return;
+        }
+        Logger.getLogger("SRW").log(Level.INFO,
+                String.format("Using the reasoner '%s'.", backend.getName()));
         Logger.getLogger("SRW").log(Level.INFO, "Creating the pseudo-contractor...");
         SRWPseudoContractor pseudoContractor = new SRWPseudoContractor(manager,
-                new ReasonerFactory(), new SelectionFunctionFull());
+                backend.getReasonerFactory(), new SelectionFunctionFull());
         pseudoContractor.setMaxRemainderElements(maxRemainderSize);
         pseudoContractor.setMaxQueueSize(maxQueueSize);
+        pseudoContractor.setUseModuleExtraction(useModuleExtraction);
+        pseudoContractor.setCheckTimeout(checkTimeout);
+        pseudoContractor.setTimeout(timeout);
+        pseudoContractor.setThreads(threads);
+        pseudoContractor.setUseMarco(marco);
+        pseudoContractor.setUseKernelDuality(kernelDuality);
+        if (resultStoreDirectory != null)
+            pseudoContractor.setResultStore(new ResultStore(new File(resultStoreDirectory)));
         Logger.getLogger("SRW").log(Level.INFO, "Executing the operation...");
         OWLOntology inferredOntology;
         try {
@@ -76,6 +202,11 @@ public class SRWPseudoContraction {
             e.printStackTrace();
             return;
         }
+        if (pseudoContractor.isPartial()) {
+            Logger.getLogger("SRW").log(Level.WARNING,
+                    "The operation has run out of time: the result is partial.");
+            PartialResults.mark(manager, inferredOntology);
+        }
         Logger.getLogger("SRW").log(Level.INFO, "Saving...");
         try {
             OutputStream s = new FileOutputStream(outputFileName);
@@ -88,6 +219,7 @@ public class SRWPseudoContraction {
         }
         Logger.getLogger("SRW").log(Level.INFO,
                 String.format("Success! Ontology saved to '%s'.\n", outputFileName));
+        Logger.getLogger("SRW").log(Level.INFO, "Reasoner timings: " + ReasonerTimings.summary());
     }
 
 }
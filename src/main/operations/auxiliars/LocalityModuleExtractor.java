@@ -0,0 +1,71 @@
+package main.operations.auxiliars;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Implements methods that extract syntactic locality-based modules from a
+ * belief set.
+ *
+ * The ⊤⊥* module of a formula's signature contains every minimal subset of
+ * the belief set that implies the formula, so the elements of the kernel set
+ * can be searched in the module only. The axioms outside the module belong
+ * to every element of the remainder set.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class LocalityModuleExtractor {
+
+    /**
+     * Returns the ⊤⊥* module of a belief set for the signature of a formula.
+     *
+     * @param kb
+     *            the belief set
+     * @param formula
+     *            the formula
+     * @return the axioms of the belief set that are in the module
+     */
+    public static Set<OWLAxiom> extractModule(Set<OWLAxiom> kb, OWLAxiom formula) {
+        return extractModule(kb, formula.getSignature());
+    }
+
+    /**
+     * Returns the ⊤⊥* module of a belief set for a signature.
+     *
+     * @param kb
+     *            the belief set
+     * @param signature
+     *            the signature
+     * @return the axioms of the belief set that are in the module
+     */
+    public static Set<OWLAxiom> extractModule(Set<OWLAxiom> kb, Set<OWLEntity> signature) {
+        SyntacticLocalityModuleExtractor extractor = new SyntacticLocalityModuleExtractor(
+                OWLManager.createOWLOntologyManager(), IRI.create("urn:module"), kb, ModuleType.STAR);
+        Set<OWLAxiom> module = new HashSet<>(extractor.extract(signature));
+        // the extractor may add declarations that are not in the belief set
+        module.retainAll(kb);
+        return module;
+    }
+
+    /**
+     * Returns the axioms of a belief set that are not in a module.
+     *
+     * @param kb
+     *            the belief set
+     * @param module
+     *            the module
+     * @return the axioms outside the module
+     */
+    public static Set<OWLAxiom> outsideModule(Set<OWLAxiom> kb, Set<OWLAxiom> module) {
+        Set<OWLAxiom> outside = new HashSet<>(kb);
+        outside.removeAll(module);
+        return outside;
+    }
+}
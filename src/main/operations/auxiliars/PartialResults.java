@@ -0,0 +1,36 @@
+package main.operations.auxiliars;
+
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Marks the ontologies that result from operations that have run out of
+ * time.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class PartialResults {
+
+    /**
+     * The comment added to a partial result.
+     */
+    public static final String COMMENT = "PARTIAL RESULT: the operation has run out of time and was computed "
+            + "from part of the kernel or remainder set only.";
+
+    /**
+     * Adds to an ontology an rdfs:comment saying that it is a partial
+     * result.
+     *
+     * @param manager
+     *            the manager of the ontology
+     * @param ontology
+     *            the ontology
+     */
+    public static void mark(OWLOntologyManager manager, OWLOntology ontology) {
+        OWLDataFactory df = manager.getOWLDataFactory();
+        manager.applyChange(new AddOntologyAnnotation(ontology,
+                df.getOWLAnnotation(df.getRDFSComment(), df.getOWLLiteral(COMMENT))));
+    }
+}
@@ -0,0 +1,340 @@
+package main.operations.auxiliars;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A file-backed store of computed kernel and remainder sets, so that a
+ * computation repeated on the same input is answered without reasoning.
+ *
+ * A result is identified by a SHA-256 digest of the belief set (its axioms
+ * rendered and sorted, so the order of the set does not matter), of the
+ * formula and of a description of the configuration of the builder. Each
+ * element of the result is a subset of the belief set, so it is stored as
+ * the positions of its axioms in the sorted belief set, one element per line
+ * of a file named after the digest.
+ *
+ * When the files take more than the maximum size, the least recently used
+ * ones are deleted. Errors of the file system are logged and treated as
+ * misses: the store never makes a computation fail.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ResultStore {
+
+    /**
+     * The default maximum size of the stored files, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The extension of the files of the results.
+     */
+    private static final String EXTENSION = ".result";
+
+    /**
+     * The first line of every file, which identifies its format.
+     */
+    private static final String HEADER = "# ontology-repair result v1";
+
+    private static final Logger LOGGER = Logger.getLogger(ResultStore.class.getName());
+
+    /**
+     * The directory of the files.
+     */
+    private File directory;
+
+    /**
+     * The maximum size of the stored files, in bytes.
+     */
+    private long maxBytes;
+
+    /**
+     * The number of computations answered by the store.
+     */
+    private long hits = 0;
+
+    /**
+     * The number of computations not answered by the store.
+     */
+    private long misses = 0;
+
+    /**
+     * Instantiates the class with the default maximum size.
+     *
+     * @param directory
+     *            the directory of the files, created if needed
+     */
+    public ResultStore(File directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Instantiates the class.
+     *
+     * @param directory
+     *            the directory of the files, created if needed
+     * @param maxBytes
+     *            the maximum size of the stored files, in bytes
+     */
+    public ResultStore(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets a stored result.
+     *
+     * @param kb
+     *            the belief set
+     * @param formula
+     *            the formula, or {@code null} for a contradiction
+     * @param configuration
+     *            a description of everything else that may change the
+     *            result
+     * @return the result, or {@code null} if it is not stored
+     */
+    public synchronized Set<Set<OWLAxiom>> get(Set<OWLAxiom> kb, OWLAxiom formula, String configuration) {
+        List<OWLAxiom> axioms = sort(kb);
+        File file = file(digest(axioms, formula, configuration));
+        Set<Set<OWLAxiom>> result = file.isFile() ? read(file, axioms) : null;
+        if (result == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        // the least recently used files are evicted first
+        file.setLastModified(System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Stores a result. Results with an axiom out of the belief set are not
+     * stored.
+     *
+     * @param kb
+     *            the belief set
+     * @param formula
+     *            the formula, or {@code null} for a contradiction
+     * @param configuration
+     *            a description of everything else that may change the
+     *            result
+     * @param result
+     *            the result, whose elements are subsets of the belief set
+     */
+    public synchronized void put(Set<OWLAxiom> kb, OWLAxiom formula, String configuration,
+            Set<Set<OWLAxiom>> result) {
+        List<OWLAxiom> axioms = sort(kb);
+        Map<OWLAxiom, Integer> positions = new HashMap<>();
+        for (int i = 0; i < axioms.size(); i++)
+            positions.put(axioms.get(i), i);
+        StringBuilder content = new StringBuilder(HEADER + "\n" + axioms.size() + "\n");
+        for (Set<OWLAxiom> element : result) {
+            int[] line = new int[element.size()];
+            int n = 0;
+            for (OWLAxiom axiom : element) {
+                Integer position = positions.get(axiom);
+                if (position == null)
+                    return;
+                line[n++] = position;
+            }
+            Arrays.sort(line);
+            for (int k = 0; k < n; k++)
+                content.append(k > 0 ? " " : "").append(line[k]);
+            content.append('\n');
+        }
+        File file = file(digest(axioms, formula, configuration));
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new IOException("Could not create the directory " + directory);
+            // written aside and moved, so a reader never sees half a file
+            File temporary = File.createTempFile("result", ".tmp", directory);
+            try {
+                try (Writer out = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8)) {
+                    out.write(content.toString());
+                }
+                move(temporary, file);
+            } finally {
+                temporary.delete();
+            }
+            evict();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not store the result in " + file, e);
+        }
+    }
+
+    /**
+     * Gets the number of computations answered by the store.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of computations not answered by the store.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the directory of the files.
+     *
+     * @return the directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the maximum size of the stored files.
+     *
+     * @return the maximum size, in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d hits, %d misses in %s", hits, misses, directory);
+    }
+
+    /**
+     * Sorts the axioms of a belief set by their rendering, which does not
+     * depend on the order of the set or on the run.
+     */
+    private static List<OWLAxiom> sort(Set<OWLAxiom> kb) {
+        List<OWLAxiom> axioms = new ArrayList<>(kb);
+        Collections.sort(axioms, new Comparator<OWLAxiom>() {
+            @Override
+            public int compare(OWLAxiom a, OWLAxiom b) {
+                int c = a.toString().compareTo(b.toString());
+                return c != 0 ? c : a.compareTo(b);
+            }
+        });
+        return axioms;
+    }
+
+    /**
+     * Computes the digest that identifies a result.
+     */
+    private static String digest(List<OWLAxiom> axioms, OWLAxiom formula, String configuration) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        for (OWLAxiom axiom : axioms)
+            digest.update((axiom + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(("\u0000" + formula + "\u0000" + configuration).getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    private File file(String digest) {
+        return new File(directory, digest + EXTENSION);
+    }
+
+    /**
+     * Reads a stored result.
+     *
+     * @return the result, or {@code null} if the file is not valid
+     */
+    private Set<Set<OWLAxiom>> read(File file, List<OWLAxiom> axioms) {
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(in.readLine()) || !String.valueOf(axioms.size()).equals(in.readLine()))
+                return invalid(file);
+            Set<Set<OWLAxiom>> result = new HashSet<>();
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                Set<OWLAxiom> element = new HashSet<>();
+                for (String position : line.isEmpty() ? new String[0] : line.split(" ")) {
+                    int i = Integer.parseInt(position);
+                    if (i < 0 || i >= axioms.size())
+                        return invalid(file);
+                    element.add(axioms.get(i));
+                }
+                result.add(element);
+            }
+            return result;
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Could not read the result in " + file, e);
+            return invalid(file);
+        }
+    }
+
+    private static Set<Set<OWLAxiom>> invalid(File file) {
+        file.delete();
+        return null;
+    }
+
+    private static void move(File from, File to) throws IOException {
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the others fit in the
+     * maximum size.
+     */
+    private void evict() {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+        List<File> results = new ArrayList<>();
+        long total = 0;
+        for (File f : files) {
+            if (f.getName().endsWith(EXTENSION)) {
+                results.add(f);
+                total += f.length();
+            }
+        }
+        if (total <= maxBytes)
+            return;
+        Collections.sort(results, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File f : results) {
+            if (total <= maxBytes)
+                break;
+            long length = f.length();
+            if (f.delete())
+                total -= length;
+        }
+    }
+}
@@ -3,6 +3,10 @@ package main.operations.blackbox;
 import java.util.Collections;
 import java.util.Set;
 
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
@@ -63,6 +67,50 @@ public abstract class AbstractBlackBox {
         return shrinkingStrategy;
     }
 
+    /**
+     * Makes both strategies use the given reasoner pool.
+     *
+     * @param reasonerPool
+     *            the reasoner pool
+     */
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        expansionStrategy.setReasonerPool(reasonerPool);
+        shrinkingStrategy.setReasonerPool(reasonerPool);
+    }
+
+    /**
+     * Makes both strategies use the given entailment cache.
+     *
+     * @param entailmentCache
+     *            the entailment cache
+     */
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        expansionStrategy.setEntailmentCache(entailmentCache);
+        shrinkingStrategy.setEntailmentCache(entailmentCache);
+    }
+
+    /**
+     * Makes both strategies use the given monotonicity index.
+     *
+     * @param monotonicityIndex
+     *            the monotonicity index
+     */
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        expansionStrategy.setMonotonicityIndex(monotonicityIndex);
+        shrinkingStrategy.setMonotonicityIndex(monotonicityIndex);
+    }
+
+    /**
+     * Makes both strategies use the given reasoning budget.
+     *
+     * @param reasoningBudget
+     *            the reasoning budget
+     */
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        expansionStrategy.setReasoningBudget(reasoningBudget);
+        shrinkingStrategy.setReasoningBudget(reasoningBudget);
+    }
+
     /**
      *
      * Executes the BlackBox algorithm.
@@ -0,0 +1,323 @@
+package main.operations.blackbox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import main.operations.blackbox.reasoner.SubsetMap;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * Enumerates the elements of the kernel set and of the remainder set of a
+ * belief set together, in the style of the MARCO algorithm for unsatisfiable
+ * and satisfiable subsets.
+ *
+ * A map of the unexplored subsets of the belief set (see {@link SubsetMap})
+ * gives a seed at each step. A seed that implies the formula is shrunk to an
+ * element of the kernel set by the kernel BlackBox algorithm, which blocks
+ * its supersets in the map; a seed that does not is grown to an element of
+ * the remainder set by the remainder BlackBox algorithm, which blocks its
+ * subsets. Every step finds a new element, and the search ends when the map
+ * has no unexplored subset, so both sets are complete at the end.
+ *
+ * The elements are passed to the consumers as soon as they are found, so a
+ * search stopped by a limit or by the reasoning budget still yields the ones
+ * found so far. Maximal seeds tend to find elements of the kernel set first,
+ * and minimal seeds elements of the remainder set.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class MarcoEnumerator extends OperatorStrategy {
+
+    /**
+     * The BlackBox algorithm that shrinks a seed to an element of the kernel
+     * set.
+     */
+    private final AbstractBlackBox kernelBlackBox;
+
+    /**
+     * The BlackBox algorithm that grows a seed to an element of the
+     * remainder set.
+     */
+    private final AbstractBlackBox remainderBlackBox;
+
+    /**
+     * Whether the seeds are maximal unexplored subsets, rather than minimal
+     * ones.
+     */
+    private boolean maximalSeeds = true;
+
+    /**
+     * The maximum number of elements of the kernel set that will be computed.
+     */
+    private int maxKernelElements = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of elements of the remainder set that will be
+     * computed.
+     */
+    private int maxRemainderElements = Integer.MAX_VALUE;
+
+    /**
+     * Receives each element of the kernel set as soon as it is found, or
+     * {@code null}.
+     */
+    private Consumer<Set<OWLAxiom>> kernelConsumer;
+
+    /**
+     * Receives each element of the remainder set as soon as it is found, or
+     * {@code null}.
+     */
+    private Consumer<Set<OWLAxiom>> remainderConsumer;
+
+    /**
+     * The elements of the kernel set found so far.
+     */
+    private List<Set<OWLAxiom>> kernels = Collections.synchronizedList(new ArrayList<Set<OWLAxiom>>());
+
+    /**
+     * The elements of the remainder set found so far.
+     */
+    private List<Set<OWLAxiom>> remainders = Collections.synchronizedList(new ArrayList<Set<OWLAxiom>>());
+
+    /**
+     * Instantiates the class.
+     *
+     * @param kernelBlackBox
+     *            an implementation of the BlackBox algorithm for the elements
+     *            of the kernel set
+     * @param remainderBlackBox
+     *            an implementation of the BlackBox algorithm for the elements
+     *            of the remainder set
+     * @param manager
+     *            the ontology manager
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     */
+    public MarcoEnumerator(AbstractBlackBox kernelBlackBox, AbstractBlackBox remainderBlackBox,
+            OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+        super(manager, reasonerFactory);
+        this.kernelBlackBox = kernelBlackBox;
+        this.remainderBlackBox = remainderBlackBox;
+    }
+
+    /**
+     * Enumerates the elements of the kernel set and of the remainder set of
+     * an ontology in relation to a formula, until both are complete or one
+     * of the limits is reached.
+     *
+     * @param kb
+     *            the axioms in the ontology
+     * @param entailment
+     *            the formula
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public void enumerate(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+        kernels.clear();
+        remainders.clear();
+        // every axiom is a variable of the map
+        AxiomInterner interner = new AxiomInterner();
+        for (OWLAxiom axiom : kb)
+            interner.intern(axiom);
+        SubsetMap map = new SubsetMap(interner.size());
+        while (kernels.size() < maxKernelElements && remainders.size() < maxRemainderElements) {
+            checkCancelled();
+            AxiomBitSet seed = map.findSeed(maximalSeeds);
+            if (seed == null)
+                break;
+            Metrics.getDefault().increment(getClass(), "seeds");
+            Set<OWLAxiom> candidate = interner.toAxioms(seed);
+            if (isEntailed(candidate, entailment)) {
+                Set<OWLAxiom> kernel = kernelBlackBox.blackBox(candidate, entailment);
+                map.blockUp(interner.toBitSet(kernel));
+                kernels.add(kernel);
+                if (monotonicityIndex != null)
+                    monotonicityIndex.record(kernel, entailment, true);
+                if (kernelConsumer != null)
+                    kernelConsumer.accept(kernel);
+            } else {
+                Set<OWLAxiom> remainder = remainderBlackBox.blackBox(kb, entailment, candidate);
+                map.blockDown(interner.toBitSet(remainder));
+                remainders.add(remainder);
+                if (monotonicityIndex != null)
+                    monotonicityIndex.record(remainder, entailment, false);
+                if (remainderConsumer != null)
+                    remainderConsumer.accept(remainder);
+            }
+        }
+        Metrics.getDefault().record(getClass(), "map clauses", map.getClauses());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The pool is also shared with both BlackBox algorithms.
+     */
+    @Override
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        super.setReasonerPool(reasonerPool);
+        kernelBlackBox.setReasonerPool(reasonerPool);
+        remainderBlackBox.setReasonerPool(reasonerPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The cache is also shared with both BlackBox algorithms.
+     */
+    @Override
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        super.setEntailmentCache(entailmentCache);
+        kernelBlackBox.setEntailmentCache(entailmentCache);
+        remainderBlackBox.setEntailmentCache(entailmentCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The index is also shared with both BlackBox algorithms.
+     */
+    @Override
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        super.setMonotonicityIndex(monotonicityIndex);
+        kernelBlackBox.setMonotonicityIndex(monotonicityIndex);
+        remainderBlackBox.setMonotonicityIndex(monotonicityIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The budget is also shared with both BlackBox algorithms.
+     */
+    @Override
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        super.setReasoningBudget(reasoningBudget);
+        kernelBlackBox.setReasoningBudget(reasoningBudget);
+        remainderBlackBox.setReasoningBudget(reasoningBudget);
+    }
+
+    /**
+     * Gets the elements of the kernel set found by the last enumeration, in
+     * the order they were found.
+     *
+     * @return the elements found
+     */
+    public List<Set<OWLAxiom>> getKernels() {
+        synchronized (kernels) {
+            return new ArrayList<>(kernels);
+        }
+    }
+
+    /**
+     * Gets the elements of the remainder set found by the last enumeration,
+     * in the order they were found.
+     *
+     * @return the elements found
+     */
+    public List<Set<OWLAxiom>> getRemainders() {
+        synchronized (remainders) {
+            return new ArrayList<>(remainders);
+        }
+    }
+
+    /**
+     * Sets the consumer that receives each element of the kernel set as soon
+     * as it is found. The consumer is called by the thread that runs the
+     * enumeration, which waits for it to return.
+     *
+     * @param kernelConsumer
+     *            the consumer, or {@code null}
+     */
+    public void setKernelConsumer(Consumer<Set<OWLAxiom>> kernelConsumer) {
+        this.kernelConsumer = kernelConsumer;
+    }
+
+    /**
+     * Sets the consumer that receives each element of the remainder set as
+     * soon as it is found. The consumer is called by the thread that runs
+     * the enumeration, which waits for it to return.
+     *
+     * @param remainderConsumer
+     *            the consumer, or {@code null}
+     */
+    public void setRemainderConsumer(Consumer<Set<OWLAxiom>> remainderConsumer) {
+        this.remainderConsumer = remainderConsumer;
+    }
+
+    /**
+     * Gets whether the seeds are maximal unexplored subsets.
+     *
+     * @return {@code true} for maximal seeds, {@code false} for minimal ones
+     */
+    public boolean getMaximalSeeds() {
+        return maximalSeeds;
+    }
+
+    /**
+     * Sets whether the seeds are maximal unexplored subsets, which tend to
+     * find the elements of the kernel set first, or minimal ones, which tend
+     * to find the elements of the remainder set first.
+     *
+     * @param maximalSeeds
+     *            {@code true} for maximal seeds, {@code false} for minimal
+     *            ones
+     */
+    public void setMaximalSeeds(boolean maximalSeeds) {
+        this.maximalSeeds = maximalSeeds;
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed kernel set.
+     *
+     * @return the maximum size of the computed kernel set
+     */
+    public int getMaxKernelElements() {
+        return maxKernelElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed kernel set.
+     *
+     * @param maxKernelElements
+     *            the maximum size of the computed kernel set
+     */
+    public void setMaxKernelElements(int maxKernelElements) {
+        this.maxKernelElements = maxKernelElements;
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed remainder set.
+     *
+     * @return the maximum size of the computed remainder set
+     */
+    public int getMaxRemainderElements() {
+        return maxRemainderElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed remainder set.
+     *
+     * @param maxRemainderElements
+     *            the maximum size of the computed remainder set
+     */
+    public void setMaxRemainderElements(int maxRemainderElements) {
+        this.maxRemainderElements = maxRemainderElements;
+    }
+}
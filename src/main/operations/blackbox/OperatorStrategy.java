@@ -1,11 +1,17 @@
 package main.operations.blackbox;
 
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.IncrementalReasoner;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
 
 import java.util.Set;
 
@@ -26,6 +32,29 @@ public class OperatorStrategy {
      */
     protected OWLReasonerFactory reasonerFactory;
 
+    /**
+     * The pool that lends the reasoners used in the checks.
+     */
+    protected ReasonerPool reasonerPool;
+
+    /**
+     * The cache of results of the checks, or {@code null} if the results are
+     * not cached.
+     */
+    protected EntailmentCache entailmentCache;
+
+    /**
+     * The index that deduces results of the checks from previous ones, or
+     * {@code null} if it is not used.
+     */
+    protected MonotonicityIndex monotonicityIndex;
+
+    /**
+     * The time allowed to the checks, or {@code null} if they are not
+     * limited.
+     */
+    protected ReasoningBudget reasoningBudget;
+
     /**
      *
      * Creates a variation of some part of BlackBox algorithm.
@@ -38,6 +67,7 @@ public class OperatorStrategy {
     public OperatorStrategy(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
         this.manager = manager;
         this.reasonerFactory = reasonerFactory;
+        this.reasonerPool = new ReasonerPool(reasonerFactory);
     }
 
     /**
@@ -48,18 +78,253 @@ public class OperatorStrategy {
      * @param entailment
      *            the formula
      * @return {@code true} if the formula is entailed, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
      */
-    public boolean isEntailed(OWLOntology ontology, OWLAxiom entailment) {
-        OWLReasoner reasoner = reasonerFactory.createNonBufferingReasoner(ontology);
-        boolean isEntailed = reasoner.isEntailed(entailment);
-        return isEntailed;
+    public boolean isEntailed(OWLOntology ontology, OWLAxiom entailment) throws OWLOntologyCreationException {
+        return isEntailed(ontology.getAxioms(), entailment);
     }
 
+    /**
+     * Checks if a given set of axioms entails a given formula.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula
+     * @return {@code true} if the formula is entailed, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public boolean isEntailed(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+        long start = System.nanoTime();
+        try {
+            return entails(kb, entailment);
+        } finally {
+            Metrics.getDefault().recordTime(getClass(), "isEntailed", start);
+        }
+    }
+
+    /**
+     * Checks if a given set of axioms entails a given formula on a reasoner
+     * of the caller instead of one of the pool, as a search does when its
+     * consecutive sets share most of their axioms. The monotonicity index,
+     * the cache and the reasoning budget are used as in
+     * {@link #isEntailed(Set, OWLAxiom)}.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula
+     * @param reasoner
+     *            the reasoner, which is not returned to the pool
+     * @return {@code true} if the formula is entailed, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    protected boolean isEntailed(Set<OWLAxiom> kb, OWLAxiom entailment, IncrementalReasoner reasoner)
+            throws OWLOntologyCreationException {
+        long start = System.nanoTime();
+        try {
+            return entails(kb, entailment, reasoner);
+        } finally {
+            Metrics.getDefault().recordTime(getClass(), "isEntailed", start);
+        }
+    }
+
+    /**
+     * Checks if a given set of axioms is consistent.
+     *
+     * @param kb
+     *            the set of axioms
+     * @return {@code true} if the set is consistent, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
     public boolean isConsistent(Set<OWLAxiom> kb) throws OWLOntologyCreationException {
-        OWLOntology ontology = manager.createOntology(kb);
-        OWLReasoner reasoner = reasonerFactory.createNonBufferingReasoner(ontology);
-        boolean isConsistent = reasoner.isConsistent();
-        return isConsistent;
+        long start = System.nanoTime();
+        try {
+            return !entails(kb, null);
+        } finally {
+            Metrics.getDefault().recordTime(getClass(), "isConsistent", start);
+        }
+    }
+
+    /**
+     * Checks if a given set of axioms entails a given formula, asking the
+     * monotonicity index and the cache before the reasoner.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula, or {@code null} for a contradiction
+     * @return {@code true} if the formula is entailed, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    private boolean entails(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+        return entails(kb, entailment, null);
+    }
+
+    /**
+     * Checks if a given set of axioms entails a given formula, asking the
+     * monotonicity index and the cache before the reasoner.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula, or {@code null} for a contradiction
+     * @param dedicated
+     *            the reasoner of the caller, or {@code null} to borrow one
+     *            from the pool
+     * @return {@code true} if the formula is entailed, {@code false} otherwise
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    private boolean entails(Set<OWLAxiom> kb, OWLAxiom entailment, IncrementalReasoner dedicated)
+            throws OWLOntologyCreationException {
+        if (monotonicityIndex != null) {
+            Boolean known = monotonicityIndex.isEntailed(kb, entailment);
+            if (known != null) {
+                Metrics.getDefault().increment(getClass(), "monotonicity index hits");
+                return known;
+            }
+        }
+        EntailmentCache.Key key = null;
+        if (entailmentCache != null) {
+            key = entailmentCache.key(kb, entailment);
+            Boolean cached = entailmentCache.get(key);
+            if (cached != null) {
+                Metrics.getDefault().increment(getClass(), "entailment cache hits");
+                return cached;
+            }
+            Metrics.getDefault().increment(getClass(), "entailment cache misses");
+        }
+        boolean entails;
+        long start = System.nanoTime();
+        IncrementalReasoner reasoner = dedicated != null ? dedicated : reasonerPool.borrow();
+        ReasoningBudget.Watch watch = null;
+        try {
+            if (reasoningBudget != null)
+                watch = reasoningBudget.watch(reasoner);
+            if (entailment == null)
+                entails = !reasoner.isConsistent(kb);
+            else
+                entails = reasoner.isEntailed(kb, entailment);
+        } catch (RuntimeException e) {
+            throw watch == null ? e : watch.translate(e);
+        } finally {
+            if (watch != null)
+                watch.close();
+            // the caller keeps its own reasoner, and an interrupted reasoner
+            // may keep the interruption
+            if (dedicated == null) {
+                if (watch != null && watch.hasFired())
+                    reasonerPool.discard(reasoner);
+                else
+                    reasonerPool.release(reasoner);
+            }
+            Metrics.getDefault().recordTime(getClass(), "reasoner checks", start);
+        }
+        if (entailmentCache != null)
+            entailmentCache.put(key, entails);
+        if (monotonicityIndex != null)
+            monotonicityIndex.record(kb, entailment, entails);
+        return entails;
+    }
+
+    /**
+     * Stops the computation if the reasoning budget has run out. The
+     * algorithms call it between the nodes of their search.
+     *
+     * @throws TimeOutException
+     *             if the reasoning budget has run out
+     */
+    protected void checkCancelled() {
+        if (reasoningBudget != null)
+            reasoningBudget.checkExpired();
+    }
+
+    /**
+     * Gets the pool that lends the reasoners used in the checks.
+     *
+     * @return the reasoner pool
+     */
+    public ReasonerPool getReasonerPool() {
+        return reasonerPool;
+    }
+
+    /**
+     * Sets the pool that lends the reasoners used in the checks, so that it
+     * can be shared with other strategies.
+     *
+     * @param reasonerPool
+     *            the reasoner pool
+     */
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        this.reasonerPool = reasonerPool;
+    }
+
+    /**
+     * Gets the cache of results of the checks.
+     *
+     * @return the entailment cache, or {@code null} if the results are not
+     *         cached
+     */
+    public EntailmentCache getEntailmentCache() {
+        return entailmentCache;
+    }
+
+    /**
+     * Sets the cache of results of the checks, so that it can be shared with
+     * other strategies.
+     *
+     * @param entailmentCache
+     *            the entailment cache, or {@code null} to disable caching
+     */
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        this.entailmentCache = entailmentCache;
+    }
+
+    /**
+     * Gets the index that deduces results of the checks from previous ones.
+     *
+     * @return the monotonicity index, or {@code null} if it is not used
+     */
+    public MonotonicityIndex getMonotonicityIndex() {
+        return monotonicityIndex;
+    }
+
+    /**
+     * Sets the index that deduces results of the checks from previous ones,
+     * so that it can be shared with other strategies.
+     *
+     * @param monotonicityIndex
+     *            the monotonicity index, or {@code null} to disable it
+     */
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        this.monotonicityIndex = monotonicityIndex;
+    }
+
+    /**
+     * Gets the time allowed to the checks.
+     *
+     * @return the reasoning budget, or {@code null} if the checks are not
+     *         limited
+     */
+    public ReasoningBudget getReasoningBudget() {
+        return reasoningBudget;
+    }
+
+    /**
+     * Sets the time allowed to the checks, so that it can be shared with
+     * other strategies.
+     *
+     * @param reasoningBudget
+     *            the reasoning budget, or {@code null} for no limit
+     */
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        this.reasoningBudget = reasoningBudget;
     }
 
 }
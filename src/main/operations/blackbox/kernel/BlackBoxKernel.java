@@ -3,6 +3,7 @@ package main.operations.blackbox.kernel;
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.blackbox.AbstractBlackBoxExpansionStrategy;
 import main.operations.blackbox.AbstractBlackBoxShrinkingStrategy;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
@@ -35,7 +36,12 @@ public class BlackBoxKernel extends AbstractBlackBox {
 
 	@Override
 	public Set<OWLAxiom> blackBox(Set<OWLAxiom> ontology, OWLAxiom entailment) throws OWLOntologyCreationException {
-		Set<OWLAxiom> expansionResult = expansionStrategy.expand(ontology, entailment);
-		return shrinkingStrategy.shrink(expansionResult, entailment);
+		long start = System.nanoTime();
+		try {
+			Set<OWLAxiom> expansionResult = expansionStrategy.expand(ontology, entailment);
+			return shrinkingStrategy.shrink(expansionResult, entailment);
+		} finally {
+			Metrics.getDefault().recordTime(getClass(), "blackBox", start);
+		}
 	}
 }
@@ -1,16 +1,42 @@
 package main.operations.blackbox.kernel;
 
+import main.operations.auxiliars.LocalityModuleExtractor;
+import main.operations.auxiliars.ResultStore;
 import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.AbstractBlackBoxExpansionStrategy;
+import main.operations.blackbox.AbstractBlackBoxShrinkingStrategy;
+import main.operations.blackbox.MarcoEnumerator;
 import main.operations.blackbox.kernel.expansionstrategies.ClassicalBlackBoxKernelExpansionStrategy;
+import main.operations.blackbox.kernel.expansionstrategies.SignatureBlackBoxKernelExpansionStrategy;
+import main.operations.blackbox.kernel.full.AbstractReiterKernelBuilder;
 import main.operations.blackbox.kernel.full.ClassicalReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.IncrementalReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.MarcoKernelBuilder;
+import main.operations.blackbox.kernel.full.OptimizedReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.ParallelReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.SmallestKernelsBuilder;
+import main.operations.blackbox.kernel.full.UniformCostIncisionBuilder;
 import main.operations.blackbox.kernel.shrinkingstrategies.ClassicalBlackBoxKernelShrinkingStrategy;
+import main.operations.blackbox.kernel.shrinkingstrategies.DivideAndConquerBlackBoxKernelShrinkingStrategy;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import main.operations.blackbox.remainder.BlackBoxRemainder;
+import main.operations.blackbox.remainder.expansionstrategies.ClassicalBlackBoxRemainderExpansionStrategy;
+import main.operations.blackbox.remainder.shrinkingstrategies.TrivialBlackBoxRemainderShrinkingStrategy;
+import main.operations.incisionfunction.AxiomWeight;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Provides the computation of the kernel set.
@@ -43,6 +69,75 @@ public class KernelBuilder {
      */
     private int maxKernelElements = Integer.MAX_VALUE;
 
+    /**
+     * The cache of results of the entailment checks, shared by every
+     * computation of this builder.
+     */
+    private EntailmentCache entailmentCache = new EntailmentCache();
+
+    /**
+     * Whether the results of previous checks are used to deduce the results
+     * of new ones by monotonicity.
+     */
+    private boolean useMonotonicityIndex = true;
+
+    /**
+     * The index used in the last computation.
+     */
+    private MonotonicityIndex monotonicityIndex;
+
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * The number of threads that expand the hitting set tree.
+     */
+    private int threads = 1;
+
+    /**
+     * Whether the hitting set tree is pruned by reuse and closing of nodes.
+     */
+    private boolean optimized = false;
+
+    /**
+     * Whether the kernels are shrunk by divide and conquer.
+     */
+    private boolean useDivideAndConquer = false;
+
+    /**
+     * Whether the kernels are expanded by signature reachability.
+     */
+    private boolean useSignatureExpansion = false;
+
+    /**
+     * Whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders.
+     */
+    private boolean useMarco = false;
+
+    /**
+     * The time allowed to the reasoning, or {@code null} for no limit.
+     */
+    private ReasoningBudget reasoningBudget;
+
+    /**
+     * Whether the last computation has been stopped by the reasoning budget.
+     */
+    private boolean partial = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
+    /**
+     * The weights of the axioms, used to find the cheapest incision.
+     */
+    private AxiomWeight axiomWeight = AxiomWeight.UNIFORM;
+
     /**
      * Instantiates the class.
      *
@@ -59,7 +154,13 @@ public class KernelBuilder {
     /**
      * Computes the kernel set of an ontology in relation to a formula.
      * The result may not be the kernel set if the limit of the queue
-     * capacity or the limit of the computed kernel set size is too slow.
+     * capacity or the limit of the computed kernel set size is too slow, or
+     * if the reasoning budget runs out (see {@link #isPartial()}).
+     *
+     * If the module extraction is enabled, the search is restricted to the
+     * locality-based module of the formula, which contains every element of
+     * the kernel set. If a result store is set, a result stored for the same
+     * belief set, formula and configuration is returned without search.
      *
      * @param kb
      *            the belief set
@@ -75,13 +176,325 @@ public class KernelBuilder {
      */
     public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment)
             throws OWLOntologyChangeException, OWLOntologyCreationException {
-        AbstractBlackBox blackbox = new BlackBoxKernel(
-                new ClassicalBlackBoxKernelExpansionStrategy(manager, reasonerFactory),
-                new ClassicalBlackBoxKernelShrinkingStrategy(manager, reasonerFactory));
-        ClassicalReiterKernelBuilder kn = new ClassicalReiterKernelBuilder(blackbox, manager, reasonerFactory);
+        Set<OWLAxiom> input = kb;
+        String configuration = getConfiguration();
+        if (resultStore != null) {
+            Set<Set<OWLAxiom>> stored = resultStore.get(input, entailment, configuration);
+            if (stored != null) {
+                partial = false;
+                return stored;
+            }
+        }
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        AbstractReiterKernelBuilder kn = createReiterKernelBuilder();
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        kn.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            Set<Set<OWLAxiom>> kernelSet = kn.kernelSet(kb, entailment);
+            if (resultStore != null)
+                resultStore.put(input, entailment, configuration, kernelSet);
+            return kernelSet;
+        } catch (TimeOutException e) {
+            partial = true;
+            return kn.getFoundKernels();
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Computes the kernel set of an edited ontology in relation to a formula
+     * from the kernel set of the ontology before the edition. The elements
+     * with a removed axiom are dropped, and only the elements with an added
+     * axiom are searched, so the work depends on the size of the edition
+     * rather than on the size of the ontology (see
+     * {@link IncrementalReiterKernelBuilder}).
+     *
+     * The previous kernel set must be complete, i.e., computed without
+     * hitting a limit and without running out of the reasoning budget, for
+     * the same formula. The other options are the same as in
+     * {@link #kernelSet(Set, OWLAxiom)}, except for the number of threads and
+     * the result store, which are not used.
+     *
+     * @param previousKernelSet
+     *            the kernel set before the edition
+     * @param kb
+     *            the belief set after the edition
+     * @param added
+     *            the axioms added by the edition
+     * @param removed
+     *            the axioms removed by the edition
+     * @param entailment
+     *            the formula that must not be implied by the elements of the
+     *            kernel set
+     * @return the computed kernel set
+     * @throws OWLOntologyChangeException
+     *             OWLOntologyChangeException
+     *
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public Set<Set<OWLAxiom>> updateKernelSet(Set<Set<OWLAxiom>> previousKernelSet, Set<OWLAxiom> kb,
+            Set<OWLAxiom> added, Set<OWLAxiom> removed, OWLAxiom entailment)
+            throws OWLOntologyChangeException, OWLOntologyCreationException {
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        IncrementalReiterKernelBuilder kn = new IncrementalReiterKernelBuilder(createBlackBox(), manager,
+                reasonerFactory);
         kn.setMaxQueueSize(maxQueueSize);
         kn.setMaxKernelElements(maxKernelElements);
-        return kn.kernelSet(kb, entailment);
+        kn.setEdition(previousKernelSet, added, removed);
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        kn.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            return kn.kernelSet(kb, entailment);
+        } catch (TimeOutException e) {
+            partial = true;
+            return kn.getFoundKernels();
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Finds a hitting set of the kernel set of an ontology in relation to a
+     * formula with minimum total weight, according to the weights of the
+     * axioms, without computing the whole kernel set (see
+     * {@link UniformCostIncisionBuilder}).
+     *
+     * If the reasoning budget runs out, the union of the elements of the
+     * kernel set found so far is returned and {@link #isPartial()} is set.
+     * The number of threads, the maximum number of elements and the result
+     * store are not used.
+     *
+     * @param kb
+     *            the belief set
+     * @param entailment
+     *            the formula that must not be implied after the incision
+     * @return the cheapest incision, or {@code null} if the limit of the
+     *         queue capacity has stopped the search before an incision was
+     *         found
+     * @throws OWLOntologyChangeException
+     *             OWLOntologyChangeException
+     *
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public Set<OWLAxiom> cheapestIncision(Set<OWLAxiom> kb, OWLAxiom entailment)
+            throws OWLOntologyChangeException, OWLOntologyCreationException {
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        UniformCostIncisionBuilder kn = new UniformCostIncisionBuilder(createBlackBox(), manager, reasonerFactory);
+        kn.setMaxQueueSize(maxQueueSize);
+        kn.setAxiomWeight(axiomWeight);
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        kn.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            return kn.cheapestIncision(kb, entailment);
+        } catch (TimeOutException e) {
+            partial = true;
+            Set<OWLAxiom> union = new HashSet<>();
+            for (Set<OWLAxiom> kernel : kn.getFoundKernels())
+                union.addAll(kernel);
+            return union;
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Computes the smallest elements of the kernel set of an ontology in
+     * relation to a formula, in non-decreasing order of size, without
+     * computing the whole kernel set (see {@link SmallestKernelsBuilder}).
+     * Unlike the maximum number of elements of {@link #kernelSet(Set,
+     * OWLAxiom)}, which keeps the elements the search happens to reach
+     * first, no element left out is smaller than the ones returned.
+     *
+     * If the reasoning budget runs out, the smallest elements found so far
+     * are returned and {@link #isPartial()} is set. The number of threads,
+     * the limits and the result store are not used.
+     *
+     * @param kb
+     *            the belief set
+     * @param entailment
+     *            the formula that must not be implied by the elements of the
+     *            kernel set
+     * @param k
+     *            the number of elements to compute
+     * @return the elements found, in non-decreasing order of size
+     * @throws OWLOntologyChangeException
+     *             OWLOntologyChangeException
+     *
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public List<Set<OWLAxiom>> smallestKernels(Set<OWLAxiom> kb, OWLAxiom entailment, int k)
+            throws OWLOntologyChangeException, OWLOntologyCreationException {
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        SmallestKernelsBuilder kn = new SmallestKernelsBuilder(manager, reasonerFactory);
+        kn.setMaxKernelElements(k);
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        kn.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            return kn.smallestKernels(kb, entailment);
+        } catch (TimeOutException e) {
+            partial = true;
+            return kn.getFoundKernels();
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Computes the kernel set of an ontology in relation to a formula
+     * lazily, with the default capacity of the stream. See
+     * {@link #kernelStream(Set, OWLAxiom, int)}.
+     *
+     * @param kb
+     *            the belief set
+     * @param entailment
+     *            the formula that must not be implied by the elements of the
+     *            kernel set
+     * @return the stream of the elements of the kernel set
+     */
+    public KernelStream kernelStream(Set<OWLAxiom> kb, OWLAxiom entailment) {
+        return kernelStream(kb, entailment, KernelStream.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Computes the kernel set of an ontology in relation to a formula
+     * lazily: the search runs in the background and each element is yielded
+     * by the returned stream as soon as it is found. The search waits when
+     * the consumer is more than {@code capacity} elements behind, and closing
+     * the stream cancels it.
+     *
+     * The same limits as {@link #kernelSet(Set, OWLAxiom)} apply. If the
+     * reasoning budget runs out, the stream ends early and
+     * {@link KernelStream#isPartial()} is set.
+     *
+     * @param kb
+     *            the belief set
+     * @param entailment
+     *            the formula that must not be implied by the elements of the
+     *            kernel set
+     * @param capacity
+     *            the number of elements the search may find ahead of the
+     *            consumer
+     * @return the stream of the elements of the kernel set
+     */
+    public KernelStream kernelStream(Set<OWLAxiom> kb, final OWLAxiom entailment, int capacity) {
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        final Set<OWLAxiom> belief = kb;
+        // closing the stream must not cancel the budget of the caller
+        ReasoningBudget budget = reasoningBudget != null ? new ReasoningBudget(reasoningBudget)
+                : new ReasoningBudget(0, 0);
+        KernelStream stream = new KernelStream(capacity, budget);
+        final AbstractReiterKernelBuilder kn = createReiterKernelBuilder();
+        final ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        kn.setReasoningBudget(budget);
+        kn.setKernelConsumer(stream.sink());
+        stream.start(new Callable<Void>() {
+            @Override
+            public Void call() throws OWLOntologyCreationException {
+                try {
+                    kn.kernelSet(belief, entailment);
+                } finally {
+                    reasonerPool.dispose();
+                }
+                return null;
+            }
+        });
+        return stream;
+    }
+
+    /**
+     * Describes the options that may change the computed kernel set, which
+     * identify its results in the result store.
+     *
+     * @return the description of the configuration
+     */
+    private String getConfiguration() {
+        String reasoner = reasonerFactory.getReasonerName();
+        return String.format("kernel reasoner=%s maxQueueSize=%d maxKernelElements=%d module=%b optimized=%b"
+                + " divideAndConquer=%b signatureExpansion=%b marco=%b",
+                reasoner != null ? reasoner : reasonerFactory.getClass().getName(), maxQueueSize,
+                maxKernelElements, useModuleExtraction, optimized && threads <= 1, useDivideAndConquer,
+                useSignatureExpansion, useMarco);
+    }
+
+    /**
+     * Creates the BlackBox algorithm that finds each element of the kernel
+     * set, as configured.
+     *
+     * @return the BlackBox algorithm
+     */
+    private AbstractBlackBox createBlackBox() {
+        AbstractBlackBoxShrinkingStrategy shrinkingStrategy = useDivideAndConquer
+                ? new DivideAndConquerBlackBoxKernelShrinkingStrategy(manager, reasonerFactory)
+                : new ClassicalBlackBoxKernelShrinkingStrategy(manager, reasonerFactory);
+        AbstractBlackBoxExpansionStrategy expansionStrategy = useSignatureExpansion
+                ? new SignatureBlackBoxKernelExpansionStrategy(manager, reasonerFactory)
+                : new ClassicalBlackBoxKernelExpansionStrategy(manager, reasonerFactory);
+        return new BlackBoxKernel(expansionStrategy, shrinkingStrategy);
+    }
+
+    /**
+     * Creates the algorithm that computes the kernel set, as configured.
+     *
+     * @return the algorithm
+     */
+    private AbstractReiterKernelBuilder createReiterKernelBuilder() {
+        AbstractBlackBox blackbox = createBlackBox();
+        AbstractReiterKernelBuilder kn;
+        if (useMarco) {
+            MarcoKernelBuilder marco = new MarcoKernelBuilder(new MarcoEnumerator(blackbox,
+                    new BlackBoxRemainder(new ClassicalBlackBoxRemainderExpansionStrategy(manager, reasonerFactory),
+                            new TrivialBlackBoxRemainderShrinkingStrategy(manager, reasonerFactory)),
+                    manager, reasonerFactory), manager, reasonerFactory);
+            marco.setMaxKernelElements(maxKernelElements);
+            kn = marco;
+        } else if (threads > 1) {
+            ParallelReiterKernelBuilder parallel = new ParallelReiterKernelBuilder(blackbox, manager, reasonerFactory);
+            parallel.setMaxQueueSize(maxQueueSize);
+            parallel.setMaxKernelElements(maxKernelElements);
+            parallel.setParallelism(threads);
+            kn = parallel;
+        } else if (optimized) {
+            kn = new OptimizedReiterKernelBuilder(blackbox, manager, reasonerFactory);
+        } else {
+            ClassicalReiterKernelBuilder classical = new ClassicalReiterKernelBuilder(blackbox, manager, reasonerFactory);
+            classical.setMaxQueueSize(maxQueueSize);
+            classical.setMaxKernelElements(maxKernelElements);
+            kn = classical;
+        }
+        return kn;
     }
 
     /**
@@ -126,4 +539,246 @@ public class KernelBuilder {
         this.maxKernelElements = maxKernelElements;
     }
 
+    /**
+     * Gets the cache of results of the entailment checks.
+     *
+     * @return the entailment cache, or {@code null} if the results are not
+     *         cached
+     */
+    public EntailmentCache getEntailmentCache() {
+        return entailmentCache;
+    }
+
+    /**
+     * Sets the cache of results of the entailment checks.
+     *
+     * @param entailmentCache
+     *            the entailment cache, or {@code null} to disable caching
+     */
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        this.entailmentCache = entailmentCache;
+    }
+
+    /**
+     * Sets whether the results of previous checks are used to deduce the
+     * results of new ones by monotonicity.
+     *
+     * @param useMonotonicityIndex
+     *            {@code true} to use the monotonicity index
+     */
+    public void setUseMonotonicityIndex(boolean useMonotonicityIndex) {
+        this.useMonotonicityIndex = useMonotonicityIndex;
+    }
+
+    /**
+     * Gets the monotonicity index used in the last computation.
+     *
+     * @return the monotonicity index, or {@code null} if it was not used
+     */
+    public MonotonicityIndex getMonotonicityIndex() {
+        return monotonicityIndex;
+    }
+
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets the number of threads that expand the hitting set tree.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that expand the hitting set tree. With more
+     * than one thread, the nodes are expanded in parallel. Without limits,
+     * the computed kernel set is the same; with the limits of the queue or of
+     * the kernel set, other elements may be computed.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets whether the hitting set tree is pruned by reuse and closing of
+     * nodes.
+     *
+     * @return {@code true} if the optimized algorithm is used
+     */
+    public boolean getOptimized() {
+        return optimized;
+    }
+
+    /**
+     * Sets whether the hitting set tree is pruned by reuse and closing of
+     * nodes. The optimized algorithm computes the full kernel set and
+     * ignores the limits of the queue and of the kernel set; it is not used
+     * with more than one thread.
+     *
+     * @param optimized
+     *            {@code true} to use the optimized algorithm
+     */
+    public void setOptimized(boolean optimized) {
+        this.optimized = optimized;
+    }
+
+    /**
+     * Gets whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders.
+     *
+     * @return {@code true} if the combined enumeration is used
+     */
+    public boolean getUseMarco() {
+        return useMarco;
+    }
+
+    /**
+     * Sets whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders (see {@link MarcoKernelBuilder}) instead of the
+     * hitting set tree. The limit of the queue, the number of threads and
+     * the optimized algorithm do not apply then.
+     *
+     * @param useMarco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setUseMarco(boolean useMarco) {
+        this.useMarco = useMarco;
+    }
+
+    /**
+     * Gets whether the kernels are shrunk by divide and conquer.
+     *
+     * @return {@code true} if the divide-and-conquer strategy is used
+     */
+    public boolean getUseDivideAndConquer() {
+        return useDivideAndConquer;
+    }
+
+    /**
+     * Sets whether the kernels are shrunk by divide and conquer, which needs
+     * far fewer entailment checks than removing one axiom at a time when the
+     * kernels are small compared to the belief set.
+     *
+     * @param useDivideAndConquer
+     *            {@code true} to use the divide-and-conquer strategy
+     */
+    public void setUseDivideAndConquer(boolean useDivideAndConquer) {
+        this.useDivideAndConquer = useDivideAndConquer;
+    }
+
+    /**
+     * Gets whether the kernels are expanded by signature reachability.
+     *
+     * @return {@code true} if the signature-based expansion is used
+     */
+    public boolean getUseSignatureExpansion() {
+        return useSignatureExpansion;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability, i.e.,
+     * from the axioms that share entities with the formula, one layer at a
+     * time, instead of taking the whole belief set at once.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations, which is
+     * checked before the search. Complete results are stored; the ones
+     * stopped by the reasoning budget are not.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Gets the weights of the axioms, used to find the cheapest incision.
+     *
+     * @return the weights of the axioms
+     */
+    public AxiomWeight getAxiomWeight() {
+        return axiomWeight;
+    }
+
+    /**
+     * Sets the weights of the axioms, used to find the cheapest incision.
+     *
+     * @param axiomWeight
+     *            the weights of the axioms
+     */
+    public void setAxiomWeight(AxiomWeight axiomWeight) {
+        this.axiomWeight = axiomWeight;
+    }
+
+    /**
+     * Gets the time allowed to the reasoning.
+     *
+     * @return the reasoning budget, or {@code null} for no limit
+     */
+    public ReasoningBudget getReasoningBudget() {
+        return reasoningBudget;
+    }
+
+    /**
+     * Sets the time allowed to the reasoning. If it runs out, the
+     * computation stops and returns the elements of the kernel set found so
+     * far.
+     *
+     * @param reasoningBudget
+     *            the reasoning budget, or {@code null} for no limit
+     */
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        this.reasoningBudget = reasoningBudget;
+    }
+
+    /**
+     * Gets whether the last computation has been stopped by the reasoning
+     * budget, in which case its result is only part of the kernel set.
+     *
+     * @return {@code true} if the result is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
 }
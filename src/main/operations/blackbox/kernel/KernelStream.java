@@ -0,0 +1,224 @@
+package main.operations.blackbox.kernel;
+
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * A lazy stream of the elements of a kernel set, which are yielded as soon
+ * as the HS-tree finds them.
+ *
+ * The search runs in its own thread and hands the elements over through a
+ * bounded buffer: when the buffer is full, the search waits for the consumer
+ * (back-pressure). Closing the stream cancels the rest of the search, so it
+ * should be used in a try-with-resources statement when it may not be read
+ * to the end.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class KernelStream implements Iterator<Set<OWLAxiom>>, AutoCloseable {
+
+    /**
+     * The default number of elements the search may find ahead of the
+     * consumer.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Marks the end of the search in the buffer.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * The elements found and not yet consumed.
+     */
+    private final BlockingQueue<Object> buffer;
+
+    /**
+     * The budget of the search, which is cancelled when the stream is
+     * closed.
+     */
+    private final ReasoningBudget budget;
+
+    /**
+     * The thread that runs the search.
+     */
+    private Thread producer;
+
+    /**
+     * The next element, taken from the buffer but not yet returned.
+     */
+    private Object next;
+
+    /**
+     * Whether the stream has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Whether the search has been stopped by the reasoning budget.
+     */
+    private volatile boolean partial = false;
+
+    /**
+     * The exception or error that stopped the search, if any. A search that
+     * crashed must never look like one that completed.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param capacity
+     *            the number of elements the search may find ahead of the
+     *            consumer
+     * @param budget
+     *            the budget of the search, which is cancelled when the stream
+     *            is closed
+     */
+    KernelStream(int capacity, ReasoningBudget budget) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.budget = budget;
+    }
+
+    /**
+     * Gets the consumer that the search must give the elements found to.
+     *
+     * @return the consumer
+     */
+    Consumer<Set<OWLAxiom>> sink() {
+        return new Consumer<Set<OWLAxiom>>() {
+            @Override
+            public void accept(Set<OWLAxiom> kernel) {
+                try {
+                    if (!closed)
+                        buffer.put(kernel);
+                } catch (InterruptedException e) {
+                    // interrupted by close()
+                }
+                if (closed)
+                    throw new TimeOutException("The kernel stream has been closed.");
+            }
+        };
+    }
+
+    /**
+     * Starts the search in a new thread.
+     *
+     * @param search
+     *            the search, which gives the elements found to {@link #sink()}
+     */
+    void start(final Callable<?> search) {
+        producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    search.call();
+                } catch (TimeOutException e) {
+                    if (!closed)
+                        partial = true;
+                } catch (Throwable e) {
+                    if (!closed)
+                        failure = e;
+                } finally {
+                    while (!closed) {
+                        try {
+                            buffer.put(END);
+                            break;
+                        } catch (InterruptedException e) {
+                            // interrupted by close()
+                        }
+                    }
+                }
+            }
+        }, "kernel-stream");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Waits until the search finds another element or ends.
+     *
+     * @throws OWLRuntimeException
+     *             if the search has failed with a checked exception; a
+     *             runtime exception or an error of the search is rethrown
+     *             as it is, every time this method is called
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (closed)
+                return false;
+            try {
+                next = buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OWLRuntimeException(e);
+            }
+        }
+        if (next == END) {
+            Throwable e = failure;
+            if (e instanceof RuntimeException)
+                throw (RuntimeException) e;
+            if (e instanceof Error)
+                throw (Error) e;
+            if (e != null)
+                throw new OWLRuntimeException(e);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<OWLAxiom> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Set<OWLAxiom> kernel = (Set<OWLAxiom>) next;
+        next = null;
+        return kernel;
+    }
+
+    /**
+     * Gets whether the search has been stopped by the reasoning budget, in
+     * which case the elements yielded are not the whole kernel set. Only
+     * meaningful once the stream has been read to the end.
+     *
+     * @return {@code true} if the search has run out of time
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Cancels the rest of the search and waits for its thread to end. The
+     * elements not yet consumed are discarded.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        budget.cancel();
+        buffer.clear();
+        if (producer == null)
+            return;
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package main.operations.blackbox.kernel;
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.blackbox.AbstractBlackBoxExpansionStrategy;
 import main.operations.blackbox.AbstractBlackBoxShrinkingStrategy;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
@@ -31,9 +32,14 @@ public class RevisionBlackBoxKernel extends AbstractBlackBox {
 
     @Override
     public Set<OWLAxiom> blackBox(Set<OWLAxiom> ontology, OWLAxiom entailment, Set<OWLAxiom> initialSet) throws OWLOntologyCreationException {
-        Set<OWLAxiom> expansionResult = this.expansionStrategy.expand(ontology, null);
-        Set<OWLAxiom> shrinkingResult = this.shrinkingStrategy.shrink(expansionResult, null);
+        long start = System.nanoTime();
+        try {
+            Set<OWLAxiom> expansionResult = this.expansionStrategy.expand(ontology, null);
+            Set<OWLAxiom> shrinkingResult = this.shrinkingStrategy.shrink(expansionResult, null);
 
-        return shrinkingResult;
+            return shrinkingResult;
+        } finally {
+            Metrics.getDefault().recordTime(getClass(), "blackBox", start);
+        }
     }
 }
@@ -1,14 +1,25 @@
 package main.operations.blackbox.kernel;
 
+import main.operations.auxiliars.LocalityModuleExtractor;
+import main.operations.auxiliars.ResultStore;
 import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.AbstractBlackBoxExpansionStrategy;
 import main.operations.blackbox.kernel.expansionstrategies.RevisionBlackBoxKernelExpansionStrategy;
-import main.operations.blackbox.kernel.full.ClassicalRevisionKernelBuilder;
+import main.operations.blackbox.kernel.expansionstrategies.SignatureBlackBoxKernelExpansionStrategy;
+import main.operations.blackbox.kernel.full.AbstractReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.MemoizedRevisionKernelBuilder;
+import main.operations.blackbox.kernel.full.ParallelRevisionKernelBuilder;
 import main.operations.blackbox.kernel.shrinkingstrategies.RevisionBlackBoxKernelShrinkingStrategy;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
 
 import java.util.Set;
 
@@ -43,6 +54,55 @@ public class RevisionKernelBuilder {
      */
     private int maxKernelElements = Integer.MAX_VALUE;
 
+    /**
+     * The cache of results of the entailment checks, shared by every
+     * computation of this builder.
+     */
+    private EntailmentCache entailmentCache = new EntailmentCache();
+
+    /**
+     * Whether the results of previous checks are used to deduce the results
+     * of new ones by monotonicity.
+     */
+    private boolean useMonotonicityIndex = true;
+
+    /**
+     * The index used in the last computation.
+     */
+    private MonotonicityIndex monotonicityIndex;
+
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * Whether the kernels are expanded by signature reachability from the
+     * revised sentence.
+     */
+    private boolean useSignatureExpansion = false;
+
+    /**
+     * The number of threads that compute the kernel set.
+     */
+    private int threads = 1;
+
+    /**
+     * The time allowed to the reasoning, or {@code null} for no limit.
+     */
+    private ReasoningBudget reasoningBudget;
+
+    /**
+     * Whether the last computation has been stopped by the reasoning budget.
+     */
+    private boolean partial = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
     /**
      * Instantiates the class.
      *
@@ -61,6 +121,12 @@ public class RevisionKernelBuilder {
      * The result may not be the kernel set if the limit of the queue
      * capacity or the limit of the computed kernel set size is too slow.
      *
+     * If the module extraction is enabled, the search is restricted to the
+     * locality-based module of the formula's signature, which contains every
+     * minimal inconsistent subset. If a result store is set, a result stored
+     * for the same belief set, formula and configuration is returned without
+     * search.
+     *
      * @param kb
      *            the belief set
      * @param entailment
@@ -75,12 +141,72 @@ public class RevisionKernelBuilder {
      */
     public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment)
             throws OWLOntologyChangeException, OWLOntologyCreationException {
-        AbstractBlackBox blackbox = new RevisionBlackBoxKernel(new RevisionBlackBoxKernelExpansionStrategy(manager, reasonerFactory), new RevisionBlackBoxKernelShrinkingStrategy(manager, reasonerFactory));
-        ClassicalRevisionKernelBuilder kn = new ClassicalRevisionKernelBuilder(blackbox, manager, reasonerFactory);
-        kn.setMaxQueueSize(maxQueueSize);
-        kn.setMaxKernelElements(maxKernelElements);
         kb.add(entailment);
-        return kn.kernelSet(kb, null);
+        Set<OWLAxiom> input = kb;
+        String configuration = getConfiguration();
+        if (resultStore != null) {
+            Set<Set<OWLAxiom>> stored = resultStore.get(input, null, configuration);
+            if (stored != null) {
+                partial = false;
+                return stored;
+            }
+        }
+        AbstractBlackBoxExpansionStrategy expansionStrategy;
+        if (useSignatureExpansion) {
+            SignatureBlackBoxKernelExpansionStrategy signature = new SignatureBlackBoxKernelExpansionStrategy(manager, reasonerFactory);
+            signature.setSeed(entailment);
+            expansionStrategy = signature;
+        } else {
+            expansionStrategy = new RevisionBlackBoxKernelExpansionStrategy(manager, reasonerFactory);
+        }
+        AbstractBlackBox blackbox = new RevisionBlackBoxKernel(expansionStrategy, new RevisionBlackBoxKernelShrinkingStrategy(manager, reasonerFactory));
+        AbstractReiterKernelBuilder kn;
+        if (threads > 1) {
+            ParallelRevisionKernelBuilder parallel = new ParallelRevisionKernelBuilder(blackbox, manager, reasonerFactory);
+            parallel.setMaxQueueSize(maxQueueSize);
+            parallel.setMaxKernelElements(maxKernelElements);
+            parallel.setParallelism(threads);
+            kn = parallel;
+        } else {
+            MemoizedRevisionKernelBuilder memoized = new MemoizedRevisionKernelBuilder(blackbox, manager, reasonerFactory);
+            memoized.setMaxQueueSize(maxQueueSize);
+            memoized.setMaxKernelElements(maxKernelElements);
+            kn = memoized;
+        }
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        kn.setReasonerPool(reasonerPool);
+        kn.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        kn.setMonotonicityIndex(monotonicityIndex);
+        if (useModuleExtraction)
+            kb = LocalityModuleExtractor.extractModule(kb, entailment);
+        kn.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            Set<Set<OWLAxiom>> kernelSet = kn.kernelSet(kb, null);
+            if (resultStore != null)
+                resultStore.put(input, null, configuration, kernelSet);
+            return kernelSet;
+        } catch (TimeOutException e) {
+            partial = true;
+            return kn.getFoundKernels();
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Describes the options that may change the computed kernel set, which
+     * identify its results in the result store.
+     *
+     * @return the description of the configuration
+     */
+    private String getConfiguration() {
+        String reasoner = reasonerFactory.getReasonerName();
+        return String.format("revision reasoner=%s maxQueueSize=%d maxKernelElements=%d module=%b parallel=%b"
+                + " signatureExpansion=%b",
+                reasoner != null ? reasoner : reasonerFactory.getClass().getName(), maxQueueSize,
+                maxKernelElements, useModuleExtraction, threads > 1, useSignatureExpansion);
     }
 
     /**
@@ -124,4 +250,161 @@ public class RevisionKernelBuilder {
     public void setMaxKernelElements(int maxKernelElements) {
         this.maxKernelElements = maxKernelElements;
     }
+
+    /**
+     * Gets the cache of results of the entailment checks.
+     *
+     * @return the entailment cache, or {@code null} if the results are not
+     *         cached
+     */
+    public EntailmentCache getEntailmentCache() {
+        return entailmentCache;
+    }
+
+    /**
+     * Sets the cache of results of the entailment checks.
+     *
+     * @param entailmentCache
+     *            the entailment cache, or {@code null} to disable caching
+     */
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        this.entailmentCache = entailmentCache;
+    }
+
+    /**
+     * Sets whether the results of previous checks are used to deduce the
+     * results of new ones by monotonicity.
+     *
+     * @param useMonotonicityIndex
+     *            {@code true} to use the monotonicity index
+     */
+    public void setUseMonotonicityIndex(boolean useMonotonicityIndex) {
+        this.useMonotonicityIndex = useMonotonicityIndex;
+    }
+
+    /**
+     * Gets the monotonicity index used in the last computation.
+     *
+     * @return the monotonicity index, or {@code null} if it was not used
+     */
+    public MonotonicityIndex getMonotonicityIndex() {
+        return monotonicityIndex;
+    }
+
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets whether the kernels are expanded by signature reachability from
+     * the revised sentence.
+     *
+     * @return {@code true} if the signature-based expansion is used
+     */
+    public boolean getUseSignatureExpansion() {
+        return useSignatureExpansion;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability from
+     * the revised sentence, one layer at a time, until they are
+     * inconsistent, instead of adding one axiom at a time in any order.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Gets the number of threads that compute the kernel set.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that compute the kernel set. With more than
+     * one thread, the sub-bases are explored in parallel by a fork-join
+     * pool.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the time allowed to the reasoning.
+     *
+     * @return the reasoning budget, or {@code null} for no limit
+     */
+    public ReasoningBudget getReasoningBudget() {
+        return reasoningBudget;
+    }
+
+    /**
+     * Sets the time allowed to the reasoning. If it runs out, the
+     * computation stops and returns the elements of the kernel set found so
+     * far.
+     *
+     * @param reasoningBudget
+     *            the reasoning budget, or {@code null} for no limit
+     */
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        this.reasoningBudget = reasoningBudget;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations, which is
+     * checked before the search. Complete results are stored; the ones
+     * stopped by the reasoning budget are not.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Gets whether the last computation has been stopped by the reasoning
+     * budget, in which case its result is only part of the kernel set.
+     *
+     * @return {@code true} if the result is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
 }
@@ -2,7 +2,6 @@ package main.operations.blackbox.kernel.expansionstrategies;
 
 import main.operations.blackbox.kernel.AbstractBlackBoxKernelExpansionStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -32,8 +31,7 @@ public class ClassicalBlackBoxKernelExpansionStrategy extends AbstractBlackBoxKe
 	@Override
 	public Set<OWLAxiom> expand(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
 		Set<OWLAxiom> toReturn;
-		OWLOntology ontology = manager.createOntology(kb);
-		if (isEntailed(ontology, entailment)) {
+		if (isEntailed(kb, entailment)) {
 			toReturn = kb;
 		}
 		else {
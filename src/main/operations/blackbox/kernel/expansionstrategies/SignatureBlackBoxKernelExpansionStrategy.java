@@ -0,0 +1,126 @@
+package main.operations.blackbox.kernel.expansionstrategies;
+
+import main.operations.blackbox.kernel.AbstractBlackBoxKernelExpansionStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implements a relevance-based method for the expansion part of BlackBox
+ * algorithm.
+ *
+ * The expansion starts from the axioms that share some entity with the
+ * formula and grows by signature reachability, one layer at a time: each
+ * layer adds the axioms that share some entity with the previous ones. It
+ * stops as soon as the formula is implied, so the shrinking part works on a
+ * small fragment of the belief set. Built-in entities (e.g. owl:Thing) do not
+ * connect axioms.
+ *
+ * If no layer implies the formula, the whole belief set is checked, since
+ * axioms unrelated to the formula may still make it implied (e.g. by making
+ * the belief set inconsistent).
+ *
+ * The elements of the kernel set used by the revision are minimal
+ * inconsistent subsets, for which no formula is given: the expansion then
+ * starts from the signature of a seed formula, if one is set, and stops as
+ * soon as the layers are inconsistent.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class SignatureBlackBoxKernelExpansionStrategy extends AbstractBlackBoxKernelExpansionStrategy {
+
+	/**
+	 * The formula whose signature starts the expansion when no formula is
+	 * given, or {@code null}.
+	 */
+	private OWLAxiom seed;
+
+	/**
+	 * Creates a variation of the expansion part of BlackBox algorithm.
+	 *
+	 * @param manager
+	 *            the OWL ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public SignatureBlackBoxKernelExpansionStrategy(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+		super(manager, reasonerFactory);
+	}
+
+	@Override
+	public Set<OWLAxiom> expand(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+		OWLAxiom origin = entailment != null ? entailment : seed;
+		if (origin != null) {
+			Map<OWLEntity, List<OWLAxiom>> occurrences = new HashMap<>();
+			for (OWLAxiom axiom : kb) {
+				for (OWLEntity entity : axiom.getSignature()) {
+					if (entity.isBuiltIn())
+						continue;
+					List<OWLAxiom> axioms = occurrences.get(entity);
+					if (axioms == null) {
+						axioms = new ArrayList<>();
+						occurrences.put(entity, axioms);
+					}
+					axioms.add(axiom);
+				}
+			}
+
+			Set<OWLAxiom> expanded = new HashSet<>();
+			Set<OWLEntity> reached = new HashSet<>();
+			List<OWLEntity> frontier = new ArrayList<>();
+			for (OWLEntity entity : origin.getSignature()) {
+				if (!entity.isBuiltIn() && reached.add(entity))
+					frontier.add(entity);
+			}
+			while (!frontier.isEmpty() && expanded.size() < kb.size()) {
+				List<OWLEntity> next = new ArrayList<>();
+				boolean grown = false;
+				for (OWLEntity entity : frontier) {
+					List<OWLAxiom> axioms = occurrences.get(entity);
+					if (axioms == null)
+						continue;
+					for (OWLAxiom axiom : axioms) {
+						if (!expanded.add(axiom))
+							continue;
+						grown = true;
+						for (OWLEntity other : axiom.getSignature()) {
+							if (!other.isBuiltIn() && reached.add(other))
+								next.add(other);
+						}
+					}
+				}
+				if (grown && isEntailed(expanded, entailment))
+					return expanded;
+				frontier = next;
+			}
+			if (expanded.size() == kb.size())
+				return Collections.emptySet();
+		}
+		if (isEntailed(kb, entailment))
+			return kb;
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Sets the formula whose signature starts the expansion when no formula
+	 * is given, as in the search for minimal inconsistent subsets of the
+	 * revision, where it is the revised sentence.
+	 *
+	 * @param seed
+	 *            the formula, or {@code null} to check the whole belief set
+	 */
+	public void setSeed(OWLAxiom seed) {
+		this.seed = seed;
+	}
+
+}
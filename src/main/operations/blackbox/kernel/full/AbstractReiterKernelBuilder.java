@@ -2,12 +2,23 @@ package main.operations.blackbox.kernel.full;
 
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.blackbox.OperatorStrategy;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Represents a generic algorithm for computing the kernel set.
@@ -17,7 +28,8 @@ import java.util.Set;
 public abstract class AbstractReiterKernelBuilder extends OperatorStrategy {
 
 	/**
-	 * An implementation of the BlackBox algorithm.
+	 * An implementation of the BlackBox algorithm, or {@code null} if the
+	 * algorithm does not use it.
 	 */
 	protected AbstractBlackBox blackBox;
 
@@ -26,6 +38,18 @@ public abstract class AbstractReiterKernelBuilder extends OperatorStrategy {
 	 */
 	protected OWLReasonerFactory reasonerFactory;
 
+	/**
+	 * The elements of the kernel set found so far, which are the result of a
+	 * computation stopped by the reasoning budget.
+	 */
+	protected Set<Set<OWLAxiom>> found = Collections.synchronizedSet(new HashSet<Set<OWLAxiom>>());
+
+	/**
+	 * Receives each element of the kernel set as soon as it is found, or
+	 * {@code null}.
+	 */
+	protected Consumer<Set<OWLAxiom>> kernelConsumer;
+
 	/**
 	 * Computes the kernel set of an ontology in relation to a formula.
 	 *
@@ -45,7 +69,8 @@ public abstract class AbstractReiterKernelBuilder extends OperatorStrategy {
 	 * Instantiates the class.
 	 *
 	 * @param blackBox
-	 *            an implementation of the blackbox algorithm
+	 *            an implementation of the blackbox algorithm, or {@code null}
+	 *            if the algorithm does not use it
 	 * @param manager
 	 *            the ontology manager
 	 * @param reasonerFactory
@@ -58,4 +83,145 @@ public abstract class AbstractReiterKernelBuilder extends OperatorStrategy {
 		this.reasonerFactory = reasonerFactory;
 	}
 
+	/**
+	 * Records an element of the kernel set found, and tells the monotonicity
+	 * index, if any, so that every superset of it is known to entail the
+	 * formula. An element found for the first time is passed to the kernel
+	 * consumer, if any.
+	 *
+	 * @param kernel
+	 *            the element of the kernel set
+	 * @param entailment
+	 *            the formula, or {@code null} for a contradiction
+	 */
+	protected void recordKernel(Set<OWLAxiom> kernel, OWLAxiom entailment) {
+		boolean isNew = found.add(kernel);
+		if (monotonicityIndex != null)
+			monotonicityIndex.record(kernel, entailment, true);
+		if (isNew && kernelConsumer != null)
+			kernelConsumer.accept(kernel);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The pool is also shared with the strategies of the BlackBox algorithm.
+	 */
+	@Override
+	public void setReasonerPool(ReasonerPool reasonerPool) {
+		super.setReasonerPool(reasonerPool);
+		if (blackBox != null)
+			blackBox.setReasonerPool(reasonerPool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The cache is also shared with the strategies of the BlackBox algorithm.
+	 */
+	@Override
+	public void setEntailmentCache(EntailmentCache entailmentCache) {
+		super.setEntailmentCache(entailmentCache);
+		if (blackBox != null)
+			blackBox.setEntailmentCache(entailmentCache);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The index is also shared with the strategies of the BlackBox algorithm.
+	 */
+	@Override
+	public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+		super.setMonotonicityIndex(monotonicityIndex);
+		if (blackBox != null)
+			blackBox.setMonotonicityIndex(monotonicityIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The budget is also shared with the strategies of the BlackBox algorithm.
+	 */
+	@Override
+	public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+		super.setReasoningBudget(reasoningBudget);
+		if (blackBox != null)
+			blackBox.setReasoningBudget(reasoningBudget);
+	}
+
+	/**
+	 * Gets the elements of the kernel set found so far. If the
+	 * computation is stopped by the reasoning budget, they are its partial
+	 * result.
+	 *
+	 * @return the elements found
+	 */
+	public Set<Set<OWLAxiom>> getFoundKernels() {
+		return found;
+	}
+
+	/**
+	 * Sets the consumer that receives each element of the kernel set as soon
+	 * as it is found. The consumer is called by the thread that runs the
+	 * algorithm, which waits for it to return.
+	 *
+	 * @param kernelConsumer
+	 *            the consumer, or {@code null}
+	 */
+	public void setKernelConsumer(Consumer<Set<OWLAxiom>> kernelConsumer) {
+		this.kernelConsumer = kernelConsumer;
+	}
+
+	/**
+	 * Indexes a new element of the kernel set.
+	 *
+	 * @param kernel
+	 *            the element of the kernel set
+	 * @param kernels
+	 *            the known elements, by identifier
+	 * @param containing
+	 *            for each axiom identifier, the identifiers of the known
+	 *            elements that contain the axiom
+	 * @param interner
+	 *            the identifiers of the axioms, which are given to the axioms
+	 *            of the element that have none
+	 */
+	protected static void addKernel(Set<OWLAxiom> kernel, List<Set<OWLAxiom>> kernels,
+			List<BitSet> containing, AxiomInterner interner) {
+		int id = kernels.size();
+		kernels.add(kernel);
+		for (OWLAxiom axiom : kernel) {
+			int axiomId = interner.intern(axiom);
+			while (containing.size() <= axiomId)
+				containing.add(new BitSet());
+			containing.get(axiomId).set(id);
+		}
+	}
+
+	/**
+	 * Finds a known element of the kernel set that has no axiom of a path.
+	 *
+	 * @param hn
+	 *            the identifiers of the axioms of the path
+	 * @param kernels
+	 *            the known elements, by identifier
+	 * @param containing
+	 *            for each axiom identifier, the identifiers of the known
+	 *            elements that contain the axiom
+	 * @return the kernel, or {@code null} if every known kernel intersects
+	 *         the path
+	 */
+	protected static Set<OWLAxiom> findDisjoint(AxiomBitSet hn, List<Set<OWLAxiom>> kernels,
+			List<BitSet> containing) {
+		BitSet disjoint = new BitSet(kernels.size());
+		disjoint.set(0, kernels.size());
+		for (int id = hn.nextSetBit(0); id >= 0; id = hn.nextSetBit(id + 1)) {
+			if (id < containing.size())
+				disjoint.andNot(containing.get(id));
+		}
+		int id = disjoint.nextSetBit(0);
+		return id < 0 ? null : kernels.get(id);
+	}
+
 }
@@ -1,8 +1,10 @@
 package main.operations.blackbox.kernel.full;
 
 import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -55,23 +57,24 @@ public class ClassicalReiterKernelBuilder extends AbstractReiterKernelBuilder {
 	public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
 		Set<Set<OWLAxiom>> kernelSet = new HashSet<>();
 
-		Queue<Set<OWLAxiom>> queue = new LinkedList<>();
-		Set<OWLAxiom> element, candidate, hn;
+		AxiomInterner interner = new AxiomInterner();
+		Queue<AxiomBitSet> queue = new LinkedList<>();
+		Set<OWLAxiom> element, candidate;
+		AxiomBitSet hn;
 
-		OWLOntology ontology = manager.createOntology(kb);
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
 
 		if (!isEntailed(ontology, entailment)) {
 			return kernelSet;
 		}
 
-		element = this.blackBox.blackBox(ontology.getAxioms(), entailment);
+		element = this.blackBox.blackBox(new HashSet<>(ontology), entailment);
+		recordKernel(element, entailment);
 		kernelSet.add(element);
 		for (OWLAxiom axiom : element) {
 			if (queue.size() >= maxQueueSize)
 				break;
-			Set<OWLAxiom> set = new HashSet<>();
-			set.add(axiom);
-			queue.add(set);
+			queue.add(AxiomBitSet.EMPTY.with(interner.intern(axiom)));
 		}
 
 		if (kernelSet.size() >= maxKernelElements)
@@ -79,29 +82,25 @@ public class ClassicalReiterKernelBuilder extends AbstractReiterKernelBuilder {
 
 		// Reiter's algorithm
 		while (!queue.isEmpty()) {
+			checkCancelled();
+			Metrics.getDefault().record(getClass(), "queue depth", queue.size());
 			hn = queue.remove();
-			for (OWLAxiom axiom : hn) {
-				manager.removeAxiom(ontology, axiom);
-			}
+			interner.removeFrom(ontology, hn);
 			if (isEntailed(ontology, entailment)) {
-				candidate = blackBox.blackBox(ontology.getAxioms(), entailment);
+				candidate = blackBox.blackBox(new HashSet<>(ontology), entailment);
+				recordKernel(candidate, entailment);
 				kernelSet.add(candidate);
 				for (OWLAxiom axiom : candidate) {
 					if (queue.size() >= maxQueueSize)
 						break;
-					Set<OWLAxiom> set2 = new HashSet<>();
-					set2.addAll(hn);
-					set2.add(axiom);
-					queue.add(set2);
+					queue.add(hn.with(interner.intern(axiom)));
 				}
 			} else
-				cut.add(hn);
+				cut.add(interner.toAxioms(hn));
 
 			// Restore to the ontology the axioms removed so it can be used
 			// again
-			for (OWLAxiom axiom : hn) {
-				manager.addAxiom(ontology, axiom);
-			}
+			interner.addTo(ontology, hn);
 		}
 		return kernelSet;
 	}
@@ -54,12 +54,14 @@ public class ClassicalRevisionKernelBuilder extends AbstractReiterKernelBuilder
         }
 
         Set<OWLAxiom> min = this.blackBox.blackBox(kb, null);
+        recordKernel(min, null);
         kernel.add(min);
 
         HashSet<OWLAxiom> aux = new HashSet<>();
         aux.addAll(kb);
 
         for (OWLAxiom beta : min) {
+            checkCancelled();
             aux.remove(beta);
             kernel.addAll(kernelSet(aux, null));
             aux.add(beta);
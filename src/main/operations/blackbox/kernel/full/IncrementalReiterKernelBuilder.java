@@ -0,0 +1,225 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.SetTrie;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Stack;
+
+/**
+ * Implements the Reiter algorithm for computing the kernel set of a belief
+ * set that has been edited, from the kernel set of the belief set before the
+ * edition.
+ *
+ * The elements of the previous kernel set without a removed axiom are still
+ * elements of the kernel set, and every new element has an added axiom. So
+ * the hitting set tree starts with the retained elements, which label nodes
+ * without reasoning, and a path that contains every added axiom is closed:
+ * only the old elements are disjoint from it. If no axiom was added, the
+ * retained elements are the kernel set and no reasoning is needed.
+ *
+ * The previous kernel set must be complete, i.e., not cut by a limit or by
+ * the reasoning budget, or some elements may be missed.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class IncrementalReiterKernelBuilder extends AbstractReiterKernelBuilder {
+
+	/**
+	 * The capacity of the stack used by this algorithm.
+	 */
+	private int maxQueueSize = Integer.MAX_VALUE;
+
+	/**
+	 * The maximum number of elements of the kernel set that will be computed.
+	 */
+	private int maxKernelElements = Integer.MAX_VALUE;
+
+	/**
+	 * The kernel set before the edition.
+	 */
+	private Set<Set<OWLAxiom>> previousKernelSet = Collections.emptySet();
+
+	/**
+	 * The axioms added by the edition.
+	 */
+	private Set<OWLAxiom> addedAxioms = Collections.emptySet();
+
+	/**
+	 * The axioms removed by the edition.
+	 */
+	private Set<OWLAxiom> removedAxioms = Collections.emptySet();
+
+	/**
+	 * Instantiates the class.
+	 *
+	 * @param blackBox
+	 *            an implementation of the blackbox algorithm
+	 * @param manager
+	 *            the ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public IncrementalReiterKernelBuilder(AbstractBlackBox blackBox, OWLOntologyManager manager,
+			OWLReasonerFactory reasonerFactory) {
+		super(blackBox, manager, reasonerFactory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The belief set is the edited one. Only the nodes whose path leaves out
+	 * an added axiom are explored, and the known elements are reused as in
+	 * {@link OptimizedReiterKernelBuilder}.
+	 *
+	 * The result may not be the full kernel set if the limit of the stack
+	 * capacity or the limit of the computed kernel set size is too slow.
+	 */
+	@Override
+	public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+		Set<Set<OWLAxiom>> kernelSet = new HashSet<>();
+
+		// the kernels by identifier and, for each axiom, the kernels that
+		// contain it
+		AxiomInterner interner = new AxiomInterner();
+		List<Set<OWLAxiom>> kernels = new ArrayList<>();
+		List<BitSet> containing = new ArrayList<>();
+
+		// invalidate the kernels that have lost an axiom
+		for (Set<OWLAxiom> kernel : previousKernelSet) {
+			if (kernelSet.size() >= maxKernelElements)
+				return kernelSet;
+			if (Collections.disjoint(kernel, removedAxioms) && kb.containsAll(kernel)) {
+				recordKernel(kernel, entailment);
+				addKernel(kernel, kernels, containing, interner);
+				kernelSet.add(kernel);
+			} else {
+				Metrics.getDefault().increment(getClass(), "kernels invalidated");
+			}
+		}
+		Set<OWLAxiom> added = new HashSet<>(addedAxioms);
+		added.retainAll(kb);
+		if (added.isEmpty())
+			return kernelSet;
+		AxiomBitSet addedIds = interner.toBitSet(added);
+
+		// the paths already generated and the closed ones
+		Set<AxiomBitSet> generated = new HashSet<>();
+		SetTrie closed = new SetTrie();
+
+		Stack<AxiomBitSet> stack = new Stack<>();
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
+		generated.add(AxiomBitSet.EMPTY);
+		stack.push(AxiomBitSet.EMPTY);
+
+		while (!stack.isEmpty()) {
+			checkCancelled();
+			Metrics.getDefault().record(getClass(), "stack depth", stack.size());
+			AxiomBitSet hn = stack.pop();
+			int[] path = hn.toArray();
+			if (hn.containsAll(addedIds) || closed.containsSubsetOf(path)) {
+				Metrics.getDefault().increment(getClass(), "paths closed");
+				continue;
+			}
+			Set<OWLAxiom> candidate = findDisjoint(hn, kernels, containing);
+			if (candidate != null) {
+				Metrics.getDefault().increment(getClass(), "kernels reused");
+			} else {
+				interner.removeFrom(ontology, hn);
+				// every retained kernel meets the path, so a kernel found
+				// here has an added axiom
+				if (isEntailed(ontology, entailment)) {
+					candidate = blackBox.blackBox(new HashSet<>(ontology), entailment);
+					recordKernel(candidate, entailment);
+					addKernel(candidate, kernels, containing, interner);
+					kernelSet.add(candidate);
+				}
+				// Restore to the ontology the axioms removed so it can be used
+				// again
+				interner.addTo(ontology, hn);
+			}
+			if (candidate == null) {
+				closed.add(path);
+				continue;
+			}
+			if (kernelSet.size() >= maxKernelElements)
+				break;
+			for (OWLAxiom axiom : candidate) {
+				if (stack.size() >= maxQueueSize)
+					break;
+				AxiomBitSet set = hn.with(interner.intern(axiom));
+				if (generated.add(set))
+					stack.push(set);
+			}
+		}
+		return kernelSet;
+	}
+
+	/**
+	 * Sets the edition of the belief set since the previous kernel set was
+	 * computed.
+	 *
+	 * @param previousKernelSet
+	 *            the complete kernel set before the edition
+	 * @param addedAxioms
+	 *            the axioms added by the edition
+	 * @param removedAxioms
+	 *            the axioms removed by the edition
+	 */
+	public void setEdition(Set<Set<OWLAxiom>> previousKernelSet, Set<OWLAxiom> addedAxioms,
+			Set<OWLAxiom> removedAxioms) {
+		this.previousKernelSet = previousKernelSet;
+		this.addedAxioms = addedAxioms;
+		this.removedAxioms = removedAxioms;
+	}
+
+	/**
+	 * Sets the capacity of the stack used by the algorithm.
+	 *
+	 * @param maxQueueSize
+	 *            the limit of the size of the stack
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * Gets the capacity of the stack used by the algorithm.
+	 *
+	 * @return the limit of the size of the stack
+	 */
+	public int getMaxQueueSize() {
+		return maxQueueSize;
+	}
+
+	/**
+	 * Gets the maximum number of elements in the computed kernel set.
+	 *
+	 * @return the maximum size of the computed kernel set
+	 */
+	public int getMaxKernelElements() {
+		return maxKernelElements;
+	}
+
+	/**
+	 * Sets the maximum number of elements in the computed kernel set.
+	 *
+	 * @param maxKernelElements
+	 *            the maximum size of the computed kernel set
+	 */
+	public void setMaxKernelElements(int maxKernelElements) {
+		this.maxKernelElements = maxKernelElements;
+	}
+}
@@ -0,0 +1,148 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.MarcoEnumerator;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Computes the kernel set by the combined enumeration of kernels and
+ * remainders (see {@link MarcoEnumerator}), which finds the elements of the
+ * remainder set as well.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class MarcoKernelBuilder extends AbstractReiterKernelBuilder {
+
+	/**
+	 * The maximum number of elements of the kernel set that will be computed.
+	 */
+	private int maxKernelElements = Integer.MAX_VALUE;
+
+	/**
+	 * The combined enumeration.
+	 */
+	private final MarcoEnumerator enumerator;
+
+	/**
+	 * Instantiates the class.
+	 *
+	 * @param enumerator
+	 *            the combined enumeration of kernels and remainders
+	 * @param manager
+	 *            the ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public MarcoKernelBuilder(MarcoEnumerator enumerator, OWLOntologyManager manager,
+			OWLReasonerFactory reasonerFactory) {
+		super(null, manager, reasonerFactory);
+		this.enumerator = enumerator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The result may not be the kernel set if the limit of the computed
+	 * kernel set size is too slow.
+	 */
+	@Override
+	public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, final OWLAxiom entailment)
+			throws OWLOntologyCreationException {
+		// maximal seeds find the elements of the kernel set first
+		enumerator.setMaximalSeeds(true);
+		enumerator.setMaxKernelElements(maxKernelElements);
+		enumerator.setKernelConsumer(new Consumer<Set<OWLAxiom>>() {
+			@Override
+			public void accept(Set<OWLAxiom> kernel) {
+				recordKernel(kernel, entailment);
+			}
+		});
+		enumerator.enumerate(kb, entailment);
+		return new HashSet<>(enumerator.getKernels());
+	}
+
+	/**
+	 * Gets the combined enumeration, whose elements of the remainder set are
+	 * found by the same search.
+	 *
+	 * @return the combined enumeration
+	 */
+	public MarcoEnumerator getEnumerator() {
+		return enumerator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The pool is also shared with the combined enumeration.
+	 */
+	@Override
+	public void setReasonerPool(ReasonerPool reasonerPool) {
+		super.setReasonerPool(reasonerPool);
+		enumerator.setReasonerPool(reasonerPool);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The cache is also shared with the combined enumeration.
+	 */
+	@Override
+	public void setEntailmentCache(EntailmentCache entailmentCache) {
+		super.setEntailmentCache(entailmentCache);
+		enumerator.setEntailmentCache(entailmentCache);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The index is also shared with the combined enumeration.
+	 */
+	@Override
+	public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+		super.setMonotonicityIndex(monotonicityIndex);
+		enumerator.setMonotonicityIndex(monotonicityIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The budget is also shared with the combined enumeration.
+	 */
+	@Override
+	public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+		super.setReasoningBudget(reasoningBudget);
+		enumerator.setReasoningBudget(reasoningBudget);
+	}
+
+	/**
+	 *
+	 * Gets the maximum number of elements in the computed kernel set.
+	 *
+	 * @return the maximum size of the computed kernel set
+	 */
+	public int getMaxKernelElements() {
+		return maxKernelElements;
+	}
+
+	/**
+	 *
+	 * Sets the maximum number of elements in the computed kernel set.
+	 *
+	 * @param maxKernelElements
+	 *            the maximum size of the computed kernel set
+	 */
+	public void setMaxKernelElements(int maxKernelElements) {
+		this.maxKernelElements = maxKernelElements;
+	}
+}
@@ -0,0 +1,185 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.SetTrie;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implements a hitting set tree for computing the kernel set aimed to the
+ * revision operation, i.e., the minimal inconsistent subsets of the belief
+ * set.
+ *
+ * Unlike {@link ClassicalRevisionKernelBuilder}, which explores every
+ * sub-base once for each way of reaching it, each set of removed axioms is
+ * explored once, and the tree is pruned as in Reiter's algorithm. The
+ * capacity of the queue and the maximum number of elements are enforced.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class MemoizedRevisionKernelBuilder extends AbstractReiterKernelBuilder {
+
+    /**
+     * The capacity of the queue used by this algorithm.
+     */
+    private int maxQueueSize = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of elements of the kernel set that will be computed.
+     */
+    private int maxKernelElements = Integer.MAX_VALUE;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param blackBox        an implementation of the blackbox algorithm
+     * @param manager         the ontology manager
+     * @param reasonerFactory a factory that builds the reasoner
+     */
+    public MemoizedRevisionKernelBuilder(AbstractBlackBox blackBox, OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+        super(blackBox, manager, reasonerFactory);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The formula is ignored: the elements are the minimal inconsistent
+     * subsets. A node is labelled, without reasoning, by a known element
+     * disjoint from its path; a path that contains a consistent path is
+     * closed; and a path generated twice is explored only once.
+     *
+     * The result may not be the full kernel set if the limit of the queue
+     * capacity or the limit of the computed kernel set size is too slow.
+     */
+    @Override
+    public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+        Set<Set<OWLAxiom>> kernelSet = new HashSet<>();
+
+        // the kernels by identifier and, for each axiom, the kernels that
+        // contain it
+        AxiomInterner interner = new AxiomInterner();
+        List<Set<OWLAxiom>> kernels = new ArrayList<>();
+        List<BitSet> containing = new ArrayList<>();
+
+        // the paths already generated and the closed ones
+        Set<AxiomBitSet> visited = new HashSet<>();
+        SetTrie closed = new SetTrie();
+
+        Queue<AxiomBitSet> queue = new LinkedList<>();
+        Set<OWLAxiom> ontology = new HashSet<>(kb);
+
+        if (isConsistent(ontology)) {
+            return kernelSet;
+        }
+
+        Set<OWLAxiom> min = this.blackBox.blackBox(new HashSet<>(ontology), null);
+        recordKernel(min, null);
+        addKernel(min, kernels, containing, interner);
+        kernelSet.add(min);
+        if (kernelSet.size() >= maxKernelElements)
+            return kernelSet;
+        for (OWLAxiom axiom : min) {
+            if (queue.size() >= maxQueueSize)
+                break;
+            AxiomBitSet set = AxiomBitSet.EMPTY.with(interner.intern(axiom));
+            if (visited.add(set))
+                queue.add(set);
+        }
+
+        while (!queue.isEmpty()) {
+            checkCancelled();
+            Metrics.getDefault().record(getClass(), "queue depth", queue.size());
+            AxiomBitSet hn = queue.remove();
+            int[] path = hn.toArray();
+            if (closed.containsSubsetOf(path)) {
+                Metrics.getDefault().increment(getClass(), "paths closed");
+                continue;
+            }
+            Set<OWLAxiom> candidate = findDisjoint(hn, kernels, containing);
+            if (candidate != null) {
+                Metrics.getDefault().increment(getClass(), "kernels reused");
+            } else {
+                interner.removeFrom(ontology, hn);
+                if (!isConsistent(ontology)) {
+                    candidate = blackBox.blackBox(new HashSet<>(ontology), null);
+                    recordKernel(candidate, null);
+                    addKernel(candidate, kernels, containing, interner);
+                    kernelSet.add(candidate);
+                }
+                // Restore to the ontology the axioms removed so it can be
+                // used again
+                interner.addTo(ontology, hn);
+            }
+            if (candidate == null) {
+                closed.add(path);
+                continue;
+            }
+            if (kernelSet.size() >= maxKernelElements)
+                break;
+            for (OWLAxiom axiom : candidate) {
+                if (queue.size() >= maxQueueSize)
+                    break;
+                AxiomBitSet set = hn.with(interner.intern(axiom));
+                if (visited.add(set))
+                    queue.add(set);
+            }
+        }
+        return kernelSet;
+    }
+
+    /**
+     * Sets the capacity of the queue used by the algorithm.
+     *
+     * @param maxQueueSize
+     *            the limit of the size of the queue
+     *
+     */
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Gets the capacity of the queue used by the algorithm.
+     *
+     * @return the limit of the size of the queue
+     *
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed kernel set.
+     *
+     * @return the maximum size of the computed kernel set
+     */
+    public int getMaxKernelElements() {
+        return maxKernelElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed kernel set.
+     *
+     * @param maxKernelElements
+     *            the maximum size of the computed kernel set
+     */
+    public void setMaxKernelElements(int maxKernelElements) {
+        this.maxKernelElements = maxKernelElements;
+    }
+
+}
@@ -1,13 +1,19 @@
 package main.operations.blackbox.kernel.full;
 
 import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.SetTrie;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
@@ -35,76 +41,81 @@ public class OptimizedReiterKernelBuilder extends AbstractReiterKernelBuilder {
 
 	/**
 	 * {@inheritDoc}
+	 *
+	 * The hitting set tree is pruned as in Reiter's algorithm: a node is
+	 * labelled, without reasoning, by a known kernel disjoint from its path
+	 * (reuse); a path that contains a closed path is closed too (closing);
+	 * and a path generated twice is expanded only once. Known kernels are
+	 * found through an index from axioms to kernels, and closed paths through
+	 * a set-trie.
 	 */
 	public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
 		Set<Set<OWLAxiom>> kernel = new HashSet<Set<OWLAxiom>>();
 
-		Set<Set<OWLAxiom>> cut = new HashSet<Set<OWLAxiom>>();
+		// the kernels by identifier and, for each axiom, the kernels that
+		// contain it
+		AxiomInterner interner = new AxiomInterner();
+		List<Set<OWLAxiom>> kernels = new ArrayList<>();
+		List<BitSet> containing = new ArrayList<>();
+
+		// the paths already generated and the closed ones
+		Set<AxiomBitSet> generated = new HashSet<>();
+		SetTrie closed = new SetTrie();
 
-		Stack<Set<OWLAxiom>> stack = new Stack<>();
+		Stack<AxiomBitSet> stack = new Stack<>();
 		Set<OWLAxiom> element;
 		Set<OWLAxiom> candidate;
-		Set<OWLAxiom> hn;
+		AxiomBitSet hn;
 
-		Set<Set<OWLAxiom>> cache = new HashSet<Set<OWLAxiom>>();
-
-		OWLOntology ontology = manager.createOntology(kb);
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
 
 		if (!isEntailed(ontology, entailment)) {
 			return kernel;
 		}
-		element = this.blackBox.blackBox(ontology.getAxioms(), entailment);
-		cache.add(element);
+		element = this.blackBox.blackBox(new HashSet<>(ontology), entailment);
+		recordKernel(element, entailment);
+		addKernel(element, kernels, containing, interner);
 		kernel.add(element);
 		for (OWLAxiom axiom : element) {
-			Set<OWLAxiom> set = new HashSet<OWLAxiom>();
-			set.add(axiom);
-			stack.add(set);
+			AxiomBitSet set = AxiomBitSet.EMPTY.with(interner.intern(axiom));
+			if (generated.add(set))
+				stack.push(set);
 		}
 		// Reiter's algorithm
 		while (!stack.isEmpty()) {
+			checkCancelled();
+			Metrics.getDefault().record(getClass(), "stack depth", stack.size());
 			hn = stack.pop();
-			for (OWLAxiom axiom : hn) {
-				manager.removeAxiom(ontology, axiom);
+			int[] path = hn.toArray();
+			if (closed.containsSubsetOf(path)) {
+				Metrics.getDefault().increment(getClass(), "paths closed");
+				continue;
 			}
-			if (isEntailed(ontology, entailment)) {
-				Set<OWLAxiom> kernelCache = findCache(cache, hn);
-				if(kernelCache!= null){
-					candidate = kernelCache;
-				}
-				else {
-					candidate = blackBox.blackBox(ontology.getAxioms(), entailment);
+			candidate = findDisjoint(hn, kernels, containing);
+			if (candidate != null) {
+				Metrics.getDefault().increment(getClass(), "kernels reused");
+			} else {
+				interner.removeFrom(ontology, hn);
+				if (isEntailed(ontology, entailment)) {
+					candidate = blackBox.blackBox(new HashSet<>(ontology), entailment);
+					recordKernel(candidate, entailment);
+					addKernel(candidate, kernels, containing, interner);
+					kernel.add(candidate);
 				}
-				kernel.add(candidate);
-				for (OWLAxiom axiom : candidate) {
-					Set<OWLAxiom> set2 = new HashSet<OWLAxiom>();
-					set2.addAll(hn);
-					set2.add(axiom);
-					if (!stack.contains(set2)) {
-						stack.add(set2);
-					}
-
-				}
-			} else
-				cut.add(hn);
-
-			// Restore to the ontology the axioms removed so it can be used
-			// again
-			for (OWLAxiom axiom : hn) {
-				manager.addAxiom(ontology, axiom);
+				// Restore to the ontology the axioms removed so it can be used
+				// again
+				interner.addTo(ontology, hn);
 			}
-		}
-		return kernel;
-	}
-
-	private Set<OWLAxiom> findCache(Set<Set<OWLAxiom>> cache, Set<OWLAxiom> hn) {
-		for (Set<OWLAxiom> eachKernel : cache){
-			Set<OWLAxiom> copy = new HashSet<OWLAxiom>(eachKernel);
-			copy.retainAll(hn);
-			if(copy.isEmpty()){
-				return eachKernel;
+			if (candidate == null) {
+				closed.add(path);
+				continue;
+			}
+			for (OWLAxiom axiom : candidate) {
+				AxiomBitSet set2 = hn.with(interner.intern(axiom));
+				if (generated.add(set2))
+					stack.push(set2);
 			}
 		}
-		return null;
+		return kernel;
 	}
 }
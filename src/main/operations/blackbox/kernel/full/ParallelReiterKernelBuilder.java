@@ -0,0 +1,286 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Implements the classical Reiter algorithm for computing the kernel set,
+ * expanding the nodes of the hitting set tree in parallel.
+ *
+ * The queue of the classical algorithm is first-in first-out, so every node
+ * in the queue is popped before any of its children. Thus, all of them are
+ * labelled at once by the workers of a fork-join pool, each one with its own
+ * copy of the belief set and a reasoner of its own taken from the pool. Then
+ * the sequential loop is replayed with the labels, so the queue and the
+ * limits are applied as in {@link ClassicalReiterKernelBuilder}.
+ *
+ * Without limits, the computed kernel set is the same as the sequential one.
+ * With limits, it may differ: the kernel that labels a node depends on the
+ * iteration order of the set given to the BlackBox algorithm, which is a
+ * fresh copy of the belief set here and a set changed in place by the
+ * sequential loop.
+ *
+ * The kernels found and the cut paths are shared by the workers through the
+ * monotonicity index and the entailment cache, and a node reached more than
+ * once is labelled only once.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ParallelReiterKernelBuilder extends AbstractReiterKernelBuilder {
+
+	/**
+	 * The label of a node whose path does not lead to a kernel.
+	 */
+	private static final Set<OWLAxiom> CUT = Collections.unmodifiableSet(new HashSet<OWLAxiom>());
+
+	/**
+	 * The capacity of the queue used by this algorithm.
+	 */
+	private int maxQueueSize = Integer.MAX_VALUE;
+
+	/**
+	 * The maximum number of elements of the kernel set that will be computed.
+	 */
+	private int maxKernelElements = Integer.MAX_VALUE;
+
+	/**
+	 * The number of workers.
+	 */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private Set<Set<OWLAxiom>> cut = Collections.newSetFromMap(new ConcurrentHashMap<Set<OWLAxiom>, Boolean>());
+
+	/**
+	 * Instantiates the class.
+	 *
+	 * @param blackBox
+	 *            an implementation of the blackbox algorithm, whose
+	 *            strategies must not keep state between calls
+	 * @param manager
+	 *            the ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public ParallelReiterKernelBuilder(AbstractBlackBox blackBox, OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+		super(blackBox, manager, reasonerFactory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The result may not be the full kernel set if the limit of the queue
+	 * capacity or the limit of the computed kernel set size is too slow.
+	 */
+	@Override
+	public Set<Set<OWLAxiom>> kernelSet(final Set<OWLAxiom> kb, final OWLAxiom entailment) throws OWLOntologyCreationException {
+		Set<Set<OWLAxiom>> kernelSet = new HashSet<>();
+
+		final AxiomInterner interner = new AxiomInterner();
+		Queue<AxiomBitSet> queue = new LinkedList<>();
+		Set<OWLAxiom> element, candidate;
+		AxiomBitSet hn;
+
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
+
+		if (!isEntailed(ontology, entailment)) {
+			return kernelSet;
+		}
+
+		element = this.blackBox.blackBox(new HashSet<>(ontology), entailment);
+		recordKernel(element, entailment);
+		kernelSet.add(element);
+		for (OWLAxiom axiom : element) {
+			if (queue.size() >= maxQueueSize)
+				break;
+			queue.add(AxiomBitSet.EMPTY.with(interner.intern(axiom)));
+		}
+
+		if (kernelSet.size() >= maxKernelElements)
+			return kernelSet;
+
+		final ConcurrentMap<AxiomBitSet, Set<OWLAxiom>> labels = new ConcurrentHashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			// Reiter's algorithm, one level of the tree at a time
+			while (!queue.isEmpty()) {
+				checkCancelled();
+				Metrics.getDefault().record(getClass(), "queue depth", queue.size());
+				List<Callable<Void>> tasks = new ArrayList<>();
+				Set<AxiomBitSet> level = new HashSet<>();
+				for (final AxiomBitSet node : queue) {
+					if (labels.containsKey(node) || !level.add(node))
+						continue;
+					tasks.add(new Callable<Void>() {
+						@Override
+						public Void call() throws OWLOntologyCreationException {
+							labels.put(node, label(kb, node, interner, entailment));
+							return null;
+						}
+					});
+				}
+				Metrics.getDefault().record(getClass(), "nodes labelled in parallel", tasks.size());
+				for (Future<Void> future : pool.invokeAll(tasks))
+					join(future);
+
+				// replay the sequential loop over the nodes of this level
+				for (int n = queue.size(); n > 0; n--) {
+					hn = queue.remove();
+					candidate = labels.get(hn);
+					if (candidate != CUT) {
+						kernelSet.add(candidate);
+						for (OWLAxiom axiom : candidate) {
+							if (queue.size() >= maxQueueSize)
+								break;
+							queue.add(hn.with(interner.intern(axiom)));
+						}
+					} else
+						cut.add(interner.toAxioms(hn));
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return kernelSet;
+	}
+
+	/**
+	 * Labels a node: finds a kernel in the belief set without the axioms of
+	 * the path to the node.
+	 *
+	 * @param kb
+	 *            the belief set
+	 * @param hn
+	 *            the identifiers of the axioms of the path to the node
+	 * @param interner
+	 *            the identifiers of the axioms
+	 * @param entailment
+	 *            the formula
+	 * @return the kernel, or {@link #CUT} if the path is cut
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	private Set<OWLAxiom> label(Set<OWLAxiom> kb, AxiomBitSet hn, AxiomInterner interner, OWLAxiom entailment)
+			throws OWLOntologyCreationException {
+		checkCancelled();
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
+		interner.removeFrom(ontology, hn);
+		if (!isEntailed(ontology, entailment))
+			return CUT;
+		Set<OWLAxiom> candidate = blackBox.blackBox(ontology, entailment);
+		recordKernel(candidate, entailment);
+		return candidate;
+	}
+
+	/**
+	 * Waits for a worker and rethrows its exception, if any.
+	 */
+	private static void join(Future<Void> future) throws OWLOntologyCreationException {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReasonerInterruptedException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof OWLOntologyCreationException)
+				throw (OWLOntologyCreationException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Sets the capacity of the queue used by the algorithm.
+	 *
+	 * @param maxQueueSize
+	 *            the limit of the size of the queue
+	 *
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * Gets the capacity of the queue used by the algorithm.
+	 *
+	 * @return the limit of the size of the queue
+	 *
+	 */
+	public int getMaxQueueSize() {
+		return maxQueueSize;
+	}
+
+	/**
+	 *
+	 * Gets the maximum number of elements in the computed kernel set.
+	 *
+	 * @return the maximum size of the computed kernel set
+	 */
+	public int getMaxKernelElements() {
+		return maxKernelElements;
+	}
+
+	/**
+	 *
+	 * Sets the maximum number of elements in the computed kernel set.
+	 *
+	 * @param maxKernelElements
+	 *            the maximum size of the computed kernel set
+	 */
+	public void setMaxKernelElements(int maxKernelElements) {
+		this.maxKernelElements = maxKernelElements;
+	}
+
+	/**
+	 * Gets the number of workers.
+	 *
+	 * @return the number of workers
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of workers.
+	 *
+	 * @param parallelism
+	 *            the number of workers
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 *
+	 * Gets a cut generated during the execution of kernelSet.
+	 *
+	 * @return cut
+	 */
+	public Set<Set<OWLAxiom>> getCut() {
+		return cut;
+	}
+}
@@ -0,0 +1,241 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements the recursive algorithm of {@link ClassicalRevisionKernelBuilder}
+ * for computing the kernel set aimed to the revision operation, exploring the
+ * sub-bases in parallel.
+ *
+ * Each sub-base is explored by a task of a fork-join pool, which finds a
+ * minimal inconsistent subset in it and forks a task for each sub-base
+ * without one of its axioms. The tasks share the kernel set, which is
+ * concurrent, and the sets of removed axioms already explored, so a sub-base
+ * reached more than once is explored only once.
+ *
+ * Without limits, the computed kernel set is the same as the sequential one.
+ * With limits, the elements computed depend on the scheduling of the tasks.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ParallelRevisionKernelBuilder extends AbstractReiterKernelBuilder {
+
+    /**
+     * The maximum number of sub-bases waiting to be explored.
+     */
+    private int maxQueueSize = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of elements of the kernel set that will be computed.
+     */
+    private int maxKernelElements = Integer.MAX_VALUE;
+
+    /**
+     * The number of workers.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Instantiates the class.
+     *
+     * @param blackBox
+     *            an implementation of the blackbox algorithm, whose
+     *            strategies must not keep state between calls
+     * @param manager
+     *            the ontology manager
+     * @param reasonerFactory
+     *            a factory that builds the reasoner
+     */
+    public ParallelRevisionKernelBuilder(AbstractBlackBox blackBox, OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+        super(blackBox, manager, reasonerFactory);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The formula is ignored: the elements are the minimal inconsistent
+     * subsets. The result may not be the full kernel set if the limit of the
+     * queue capacity or the limit of the computed kernel set size is too
+     * slow.
+     */
+    @Override
+    public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+        Search search = new Search(kb);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            search.visited.add(AxiomBitSet.EMPTY);
+            pool.invoke(search.explore(AxiomBitSet.EMPTY));
+        } catch (OWLRuntimeException e) {
+            // a task wraps the checked exceptions of the reasoning, and the
+            // pool may wrap the task's exception again
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OWLOntologyCreationException)
+                    throw (OWLOntologyCreationException) cause;
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+        return new HashSet<>(search.kernelSet);
+    }
+
+    /**
+     * The state shared by the tasks of a computation.
+     */
+    private class Search {
+
+        private final Set<OWLAxiom> kb;
+
+        private final Set<Set<OWLAxiom>> kernelSet = Collections
+                .newSetFromMap(new ConcurrentHashMap<Set<OWLAxiom>, Boolean>());
+
+        private final Set<AxiomBitSet> visited = Collections
+                .newSetFromMap(new ConcurrentHashMap<AxiomBitSet, Boolean>());
+
+        private final AxiomInterner interner = new AxiomInterner();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Search(Set<OWLAxiom> kb) {
+            this.kb = kb;
+        }
+
+        private RecursiveTask<Void> explore(final AxiomBitSet removed) {
+            pending.incrementAndGet();
+            return new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    List<RecursiveTask<Void>> children;
+                    try {
+                        children = label(removed);
+                    } catch (OWLOntologyCreationException e) {
+                        throw new OWLRuntimeException(e);
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                    invokeAll(children);
+                    return null;
+                }
+            };
+        }
+
+        /**
+         * Finds an element of the kernel set in the sub-base without the
+         * removed axioms, and creates the tasks of the sub-bases without each
+         * of its axioms.
+         */
+        private List<RecursiveTask<Void>> label(AxiomBitSet removed) throws OWLOntologyCreationException {
+            List<RecursiveTask<Void>> children = new ArrayList<>();
+            if (kernelSet.size() >= maxKernelElements)
+                return children;
+            checkCancelled();
+            Set<OWLAxiom> ontology = new HashSet<>(kb);
+            interner.removeFrom(ontology, removed);
+            if (isConsistent(ontology))
+                return children;
+            Set<OWLAxiom> min = blackBox.blackBox(ontology, null);
+            if (!add(min))
+                return children;
+            recordKernel(min, null);
+            for (OWLAxiom beta : min) {
+                if (pending.get() >= maxQueueSize)
+                    break;
+                AxiomBitSet next = removed.with(interner.intern(beta));
+                if (visited.add(next))
+                    children.add(explore(next));
+            }
+            return children;
+        }
+
+        /**
+         * Adds an element to the kernel set, unless the limit is reached.
+         */
+        private boolean add(Set<OWLAxiom> kernel) {
+            synchronized (kernelSet) {
+                if (kernelSet.contains(kernel))
+                    return true;
+                if (kernelSet.size() >= maxKernelElements)
+                    return false;
+                return kernelSet.add(kernel);
+            }
+        }
+    }
+
+    /**
+     * Sets the maximum number of sub-bases waiting to be explored.
+     *
+     * @param maxQueueSize
+     *            the limit of the number of waiting sub-bases
+     *
+     */
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Gets the maximum number of sub-bases waiting to be explored.
+     *
+     * @return the limit of the number of waiting sub-bases
+     *
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed kernel set.
+     *
+     * @return the maximum size of the computed kernel set
+     */
+    public int getMaxKernelElements() {
+        return maxKernelElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed kernel set.
+     *
+     * @param maxKernelElements
+     *            the maximum size of the computed kernel set
+     */
+    public void setMaxKernelElements(int maxKernelElements) {
+        this.maxKernelElements = maxKernelElements;
+    }
+
+    /**
+     * Gets the number of workers.
+     *
+     * @return the number of workers
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of workers.
+     *
+     * @param parallelism
+     *            the number of workers
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
@@ -0,0 +1,286 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.OperatorStrategy;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.SetTrie;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Computes the smallest elements of the kernel set, in non-decreasing order
+ * of size, stopping after a given number of them.
+ *
+ * A formula implied by the empty set, such as a tautology, has the empty set
+ * as its only element. Otherwise, the search is bounded by the size of the
+ * elements: every element of size {@code b} is found before any of size
+ * {@code b + 1}. At each bound, the subsets of the belief set with {@code b}
+ * axioms are enumerated in a fixed order of the axioms, and a subset that
+ * implies the formula is an element, since every smaller element is already
+ * known and none is contained in it.
+ * The enumeration is pruned by cardinality in two ways: a subset that
+ * contains a known element is skipped, and if a partial subset together
+ * with all the axioms after its last one does not imply the formula, neither
+ * does any completion of it nor of the partial subsets that follow it.
+ *
+ * After each bound, the search ends if no subset of that size was left to
+ * check, or if the hitting set tree of the known elements shows that there
+ * is no other element.
+ *
+ * The elements are recorded as soon as they are found, so a computation
+ * stopped by the reasoning budget still yields the smallest elements found
+ * so far (see {@link #getFoundKernels()}).
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class SmallestKernelsBuilder extends OperatorStrategy {
+
+	/**
+	 * The number of elements of the kernel set that will be computed.
+	 */
+	private int maxKernelElements = Integer.MAX_VALUE;
+
+	/**
+	 * The elements of the kernel set found so far, in the order they were
+	 * found.
+	 */
+	private List<Set<OWLAxiom>> found = Collections.synchronizedList(new ArrayList<Set<OWLAxiom>>());
+
+	/**
+	 * Instantiates the class.
+	 *
+	 * @param manager
+	 *            the ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public SmallestKernelsBuilder(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+		super(manager, reasonerFactory);
+	}
+
+	/**
+	 * Computes the smallest elements of the kernel set of an ontology in
+	 * relation to a formula.
+	 *
+	 * @param kb
+	 *            the axioms in the ontology
+	 * @param entailment
+	 *            the formula that must not be implied by the elements of the
+	 *            remainder set
+	 * @return the elements found, in non-decreasing order of size, which are
+	 *         at most the maximum number of elements
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	public List<Set<OWLAxiom>> smallestKernels(Set<OWLAxiom> kb, OWLAxiom entailment)
+			throws OWLOntologyCreationException {
+		found.clear();
+		if (maxKernelElements <= 0 || !isEntailed(kb, entailment))
+			return new ArrayList<>(found);
+		// a formula implied by the empty set has it as its only element
+		if (isEntailed(new HashSet<OWLAxiom>(), entailment)) {
+			found.add(new HashSet<OWLAxiom>());
+			return new ArrayList<>(found);
+		}
+		// the identifier of an axiom is its position in the enumeration
+		List<OWLAxiom> axioms = new ArrayList<>(kb);
+		List<AxiomBitSet> kernels = new ArrayList<>();
+		SetTrie known = new SetTrie();
+		for (int bound = 1; bound <= axioms.size() && found.size() < maxKernelElements; bound++) {
+			Metrics.getDefault().record(getClass(), "size bound", bound);
+			// the first axioms of a larger element would have been a
+			// candidate of this bound
+			if (search(axioms, AxiomBitSet.EMPTY, 0, bound, kernels, known, entailment) == 0)
+				break;
+			if (found.size() < maxKernelElements && isComplete(axioms, kernels, entailment))
+				break;
+		}
+		return new ArrayList<>(found);
+	}
+
+	/**
+	 * Finds the elements of the kernel set with a given size that extend a
+	 * partial subset with axioms after its last one.
+	 *
+	 * @param axioms
+	 *            the axioms of the belief set, by identifier
+	 * @param partial
+	 *            the identifiers of the axioms of the partial subset
+	 * @param from
+	 *            the first identifier that can extend the partial subset
+	 * @param bound
+	 *            the size of the elements
+	 * @param kernels
+	 *            the identifiers of the axioms of the elements already found
+	 * @param known
+	 *            the same elements, indexed for the search of subsets
+	 * @param entailment
+	 *            the formula
+	 * @return the number of subsets with the given size that were checked
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	private int search(List<OWLAxiom> axioms, AxiomBitSet partial, int from, int bound,
+			List<AxiomBitSet> kernels, SetTrie known, OWLAxiom entailment) throws OWLOntologyCreationException {
+		int checked = 0;
+		int last = axioms.size() - (bound - partial.size());
+		// the axioms that would make a known element with the partial subset
+		// are in no new element that extends it
+		AxiomBitSet.Builder excluded = new AxiomBitSet.Builder();
+		for (int id = from; id < axioms.size(); id++) {
+			if (known.containsSubsetOf(partial.with(id).toArray()))
+				excluded.add(id);
+		}
+		AxiomBitSet unusable = excluded.build();
+		for (int id = from; id <= last; id++) {
+			checkCancelled();
+			if (found.size() >= maxKernelElements)
+				return checked;
+			// the subsets extending this one from here on are contained in
+			// it, so they do not imply the formula either
+			if (!isEntailed(union(axioms, partial, id, unusable), entailment)) {
+				Metrics.getDefault().increment(getClass(), "subsets pruned");
+				return checked;
+			}
+			if (unusable.contains(id))
+				continue;
+			AxiomBitSet subset = partial.with(id);
+			int[] ids = subset.toArray();
+			if (subset.size() < bound) {
+				checked += search(axioms, subset, id + 1, bound, kernels, known, entailment);
+				continue;
+			}
+			checked++;
+			Set<OWLAxiom> candidate = union(axioms, subset, axioms.size(), AxiomBitSet.EMPTY);
+			if (isEntailed(candidate, entailment)) {
+				kernels.add(subset);
+				known.add(ids);
+				found.add(candidate);
+			}
+		}
+		return checked;
+	}
+
+	/**
+	 * Checks if the known elements are the whole kernel set, by building the
+	 * hitting set tree of the known elements only: if the belief set without
+	 * each of its minimal hitting sets does not imply the formula, there is
+	 * no other element, since it would be disjoint from one of them.
+	 *
+	 * @param axioms
+	 *            the axioms of the belief set, by identifier
+	 * @param kernels
+	 *            the identifiers of the axioms of the known elements
+	 * @param entailment
+	 *            the formula
+	 * @return {@code true} if there is no other element
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	private boolean isComplete(List<OWLAxiom> axioms, List<AxiomBitSet> kernels, OWLAxiom entailment)
+			throws OWLOntologyCreationException {
+		Set<AxiomBitSet> generated = new HashSet<>();
+		SetTrie closed = new SetTrie();
+		Queue<AxiomBitSet> queue = new LinkedList<>();
+		generated.add(AxiomBitSet.EMPTY);
+		queue.add(AxiomBitSet.EMPTY);
+		while (!queue.isEmpty()) {
+			checkCancelled();
+			AxiomBitSet hn = queue.remove();
+			int[] path = hn.toArray();
+			if (closed.containsSubsetOf(path))
+				continue;
+			AxiomBitSet label = null;
+			for (AxiomBitSet kernel : kernels) {
+				if (!kernel.intersects(hn)) {
+					label = kernel;
+					break;
+				}
+			}
+			if (label == null) {
+				Set<OWLAxiom> ontology = new HashSet<>(axioms);
+				for (int id = hn.nextSetBit(0); id >= 0; id = hn.nextSetBit(id + 1))
+					ontology.remove(axioms.get(id));
+				if (isEntailed(ontology, entailment))
+					return false;
+				closed.add(path);
+				continue;
+			}
+			for (int id = label.nextSetBit(0); id >= 0; id = label.nextSetBit(id + 1)) {
+				AxiomBitSet child = hn.with(id);
+				if (generated.add(child))
+					queue.add(child);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the axioms of a subset together with the axioms from an
+	 * identifier on, except for some of them.
+	 *
+	 * @param axioms
+	 *            the axioms of the belief set, by identifier
+	 * @param subset
+	 *            the identifiers of the axioms of the subset
+	 * @param from
+	 *            the first identifier of the axioms added to the subset
+	 * @param except
+	 *            the identifiers of the axioms that are not added
+	 * @return the axioms
+	 */
+	private static Set<OWLAxiom> union(List<OWLAxiom> axioms, AxiomBitSet subset, int from, AxiomBitSet except) {
+		Set<OWLAxiom> result = new HashSet<>();
+		for (int id = from; id < axioms.size(); id++) {
+			if (!except.contains(id))
+				result.add(axioms.get(id));
+		}
+		for (int id = subset.nextSetBit(0); id >= 0; id = subset.nextSetBit(id + 1))
+			result.add(axioms.get(id));
+		return result;
+	}
+
+	/**
+	 * Gets the elements of the kernel set found so far, in non-decreasing
+	 * order of size. If the computation is stopped by the reasoning budget,
+	 * they are its partial result.
+	 *
+	 * @return the elements found
+	 */
+	public List<Set<OWLAxiom>> getFoundKernels() {
+		synchronized (found) {
+			return new ArrayList<>(found);
+		}
+	}
+
+	/**
+	 *
+	 * Gets the number of elements of the kernel set that will be computed.
+	 *
+	 * @return the number of elements
+	 */
+	public int getMaxKernelElements() {
+		return maxKernelElements;
+	}
+
+	/**
+	 *
+	 * Sets the number of elements of the kernel set that will be computed.
+	 *
+	 * @param maxKernelElements
+	 *            the number of elements
+	 */
+	public void setMaxKernelElements(int maxKernelElements) {
+		this.maxKernelElements = maxKernelElements;
+	}
+}
@@ -0,0 +1,199 @@
+package main.operations.blackbox.kernel.full;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.incisionfunction.AxiomWeight;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Finds the cheapest incision of the kernel set without computing the whole
+ * kernel set.
+ *
+ * The nodes of the hitting set tree are explored in order of the total
+ * weight of the axioms of their path (uniform-cost search), so the first
+ * path whose removal makes the formula not implied is a hitting set of the
+ * kernel set of minimum weight. Only the kernels that label the explored
+ * nodes are computed, and a known kernel disjoint from a path labels it
+ * without reasoning.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class UniformCostIncisionBuilder extends AbstractReiterKernelBuilder {
+
+	/**
+	 * The weights of the axioms.
+	 */
+	private AxiomWeight axiomWeight = AxiomWeight.UNIFORM;
+
+	/**
+	 * The capacity of the queue used by this algorithm.
+	 */
+	private int maxQueueSize = Integer.MAX_VALUE;
+
+	/**
+	 * Instantiates the class.
+	 *
+	 * @param blackBox
+	 *            an implementation of the blackbox algorithm
+	 * @param manager
+	 *            the ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public UniformCostIncisionBuilder(AbstractBlackBox blackBox, OWLOntologyManager manager,
+			OWLReasonerFactory reasonerFactory) {
+		super(blackBox, manager, reasonerFactory);
+	}
+
+	/**
+	 * Finds a hitting set of the kernel set of an ontology in relation to a
+	 * formula with minimum total weight.
+	 *
+	 * @param kb
+	 *            the axioms in the ontology
+	 * @param entailment
+	 *            the formula that must not be implied after the incision
+	 * @return the cheapest incision, which is empty if the formula is not
+	 *         implied, or {@code null} if the limit of the queue capacity has
+	 *         stopped the search before an incision was found
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	public Set<OWLAxiom> cheapestIncision(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+		// the kernels by identifier and, for each axiom, the kernels that
+		// contain it
+		AxiomInterner interner = new AxiomInterner();
+		List<Set<OWLAxiom>> kernels = new ArrayList<>();
+		List<BitSet> containing = new ArrayList<>();
+
+		Set<AxiomBitSet> generated = new HashSet<>();
+		PriorityQueue<Node> queue = new PriorityQueue<>();
+		Set<OWLAxiom> ontology = new HashSet<>(kb);
+		long sequence = 0;
+
+		generated.add(AxiomBitSet.EMPTY);
+		queue.add(new Node(AxiomBitSet.EMPTY, 0, sequence++));
+
+		while (!queue.isEmpty()) {
+			checkCancelled();
+			Metrics.getDefault().record(getClass(), "queue depth", queue.size());
+			Node node = queue.poll();
+			Set<OWLAxiom> candidate = findDisjoint(node.path, kernels, containing);
+			if (candidate != null) {
+				Metrics.getDefault().increment(getClass(), "kernels reused");
+			} else {
+				interner.removeFrom(ontology, node.path);
+				if (isEntailed(ontology, entailment)) {
+					candidate = blackBox.blackBox(new HashSet<>(ontology), entailment);
+					recordKernel(candidate, entailment);
+					addKernel(candidate, kernels, containing, interner);
+				}
+				// Restore to the ontology the axioms removed so it can be used
+				// again
+				interner.addTo(ontology, node.path);
+			}
+			// no node is cheaper than the first closed one
+			if (candidate == null)
+				return interner.toAxioms(node.path);
+			for (OWLAxiom axiom : candidate) {
+				if (queue.size() >= maxQueueSize)
+					break;
+				AxiomBitSet set = node.path.with(interner.intern(axiom));
+				if (generated.add(set))
+					queue.add(new Node(set, node.cost + axiomWeight.weight(axiom), sequence++));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only the elements that label the nodes explored until the cheapest
+	 * incision is found are computed, which may not be the whole kernel set.
+	 * The cheapest incision is also a minimum hitting set of them.
+	 */
+	@Override
+	public Set<Set<OWLAxiom>> kernelSet(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
+		cheapestIncision(kb, entailment);
+		return new HashSet<>(found);
+	}
+
+	/**
+	 * Gets the weights of the axioms.
+	 *
+	 * @return the weights of the axioms
+	 */
+	public AxiomWeight getAxiomWeight() {
+		return axiomWeight;
+	}
+
+	/**
+	 * Sets the weights of the axioms, which must not be negative.
+	 *
+	 * @param axiomWeight
+	 *            the weights of the axioms
+	 */
+	public void setAxiomWeight(AxiomWeight axiomWeight) {
+		this.axiomWeight = axiomWeight;
+	}
+
+	/**
+	 * Sets the capacity of the queue used by the algorithm. If the limit is
+	 * reached, the incision found may not be the cheapest one, or none may
+	 * be found.
+	 *
+	 * @param maxQueueSize
+	 *            the limit of the size of the queue
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * Gets the capacity of the queue used by the algorithm.
+	 *
+	 * @return the limit of the size of the queue
+	 */
+	public int getMaxQueueSize() {
+		return maxQueueSize;
+	}
+
+	/**
+	 * A node of the hitting set tree: its path and the total weight of the
+	 * path. Among nodes of the same weight, the ones with fewer axioms, then
+	 * the older ones, come first.
+	 */
+	private static final class Node implements Comparable<Node> {
+
+		private final AxiomBitSet path;
+		private final double cost;
+		private final long sequence;
+
+		private Node(AxiomBitSet path, double cost, long sequence) {
+			this.path = path;
+			this.cost = cost;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Node o) {
+			int c = Double.compare(cost, o.cost);
+			if (c == 0)
+				c = Integer.compare(path.size(), o.path.size());
+			return c != 0 ? c : Long.compare(sequence, o.sequence);
+		}
+	}
+}
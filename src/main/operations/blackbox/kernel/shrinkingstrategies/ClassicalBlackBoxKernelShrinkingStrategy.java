@@ -2,11 +2,11 @@ package main.operations.blackbox.kernel.shrinkingstrategies;
 
 import main.operations.blackbox.kernel.AbstractBlackBoxKernelShrinkingStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -30,14 +30,14 @@ public class ClassicalBlackBoxKernelShrinkingStrategy extends AbstractBlackBoxKe
 
 	@Override
 	public Set<OWLAxiom> shrink(Set<OWLAxiom> kb, OWLAxiom entailment, Set<OWLAxiom> keep) throws OWLOntologyCreationException {
-		OWLOntology ontology= manager.createOntology(kb);
+		Set<OWLAxiom> kernel = new HashSet<>(kb);
 		for (OWLAxiom axiom : kb){
-			manager.removeAxiom(ontology, axiom);
-			if(!isEntailed(ontology, entailment)){
-				manager.addAxiom(ontology, axiom);
+			kernel.remove(axiom);
+			if(!isEntailed(kernel, entailment)){
+				kernel.add(axiom);
 			}
 		}
-		return ontology.getAxioms();
+		return kernel;
 	}
 
 
@@ -0,0 +1,101 @@
+package main.operations.blackbox.kernel.shrinkingstrategies;
+
+import main.operations.blackbox.kernel.AbstractBlackBoxKernelShrinkingStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implements a divide-and-conquer method for the shrinking part of BlackBox
+ * algorithm, in the style of QuickXplain (Junker, 2004).
+ *
+ * The set is split in two halves and the kernel is searched in the second
+ * half with the first one as background, and then in the first half with
+ * the part found as background. A kernel of size k of a set of size n is
+ * found with O(k log(n/k)) entailment checks, instead of n checks of the
+ * classical method.
+ *
+ * The set to be shrunk must imply the formula, as it is the result of the
+ * expansion. A formula implied by the empty set, such as a tautology, has
+ * the empty set as its kernel.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class DivideAndConquerBlackBoxKernelShrinkingStrategy extends AbstractBlackBoxKernelShrinkingStrategy {
+
+	/**
+	 * Instantiate the class.
+	 *
+	 * @param manager
+	 *            the OWL ontology manager
+	 * @param reasonerFactory
+	 *            a factory that constructs the reasoner
+	 */
+	public DivideAndConquerBlackBoxKernelShrinkingStrategy(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory) {
+		super(manager, reasonerFactory);
+	}
+
+	@Override
+	public Set<OWLAxiom> shrink(Set<OWLAxiom> kb, OWLAxiom entailment, Set<OWLAxiom> keep) throws OWLOntologyCreationException {
+		Set<OWLAxiom> background = new HashSet<>(keep);
+		background.retainAll(kb);
+		List<OWLAxiom> candidates = new ArrayList<>();
+		for (OWLAxiom axiom : kb) {
+			if (!background.contains(axiom))
+				candidates.add(axiom);
+		}
+		Set<OWLAxiom> kernel = new HashSet<>(background);
+		// the background alone may imply the formula, even if it is empty
+		if (candidates.isEmpty() || isEntailed(background, entailment))
+			return kernel;
+		kernel.addAll(quickXplain(background, false, candidates, entailment));
+		return kernel;
+	}
+
+	/**
+	 * Finds a minimal subset of the candidates that, with the background,
+	 * implies the formula.
+	 *
+	 * @param background
+	 *            the axioms assumed
+	 * @param changed
+	 *            whether the background has grown since the last check
+	 * @param candidates
+	 *            the axioms searched, which imply the formula with the
+	 *            background
+	 * @param entailment
+	 *            the formula
+	 * @return the minimal subset
+	 * @throws OWLOntologyCreationException
+	 *             OWLOntologyCreationException
+	 */
+	private List<OWLAxiom> quickXplain(Set<OWLAxiom> background, boolean changed, List<OWLAxiom> candidates,
+			OWLAxiom entailment) throws OWLOntologyCreationException {
+		if (changed && isEntailed(background, entailment))
+			return Collections.emptyList();
+		if (candidates.size() == 1)
+			return candidates;
+		int half = candidates.size() / 2;
+		List<OWLAxiom> first = candidates.subList(0, half);
+		List<OWLAxiom> second = candidates.subList(half, candidates.size());
+
+		Set<OWLAxiom> withFirst = new HashSet<>(background);
+		withFirst.addAll(first);
+		List<OWLAxiom> fromSecond = quickXplain(withFirst, true, second, entailment);
+
+		Set<OWLAxiom> withFromSecond = new HashSet<>(background);
+		withFromSecond.addAll(fromSecond);
+		List<OWLAxiom> fromFirst = quickXplain(withFromSecond, !fromSecond.isEmpty(), first, entailment);
+
+		List<OWLAxiom> result = new ArrayList<>(fromFirst);
+		result.addAll(fromSecond);
+		return result;
+	}
+}
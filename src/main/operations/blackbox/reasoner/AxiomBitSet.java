@@ -0,0 +1,208 @@
+package main.operations.blackbox.reasoner;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of axiom identifiers (see {@link AxiomInterner}), kept as
+ * the words of a bitset.
+ *
+ * Unlike a {@code HashSet<OWLAxiom>}, it holds no object per element, its
+ * hash code is computed once, and extending it by one axiom copies a few
+ * words only. The words above the highest identifier are not kept, so equal
+ * sets have equal arrays.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public final class AxiomBitSet {
+
+    /**
+     * The empty set.
+     */
+    public static final AxiomBitSet EMPTY = new AxiomBitSet(new long[0], 0);
+
+    private final long[] words;
+
+    private final int size;
+
+    private final int hash;
+
+    private AxiomBitSet(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Returns the set with one more identifier.
+     *
+     * @param id
+     *            the identifier
+     * @return the new set, or this one if it already has the identifier
+     */
+    public AxiomBitSet with(int id) {
+        if (contains(id))
+            return this;
+        int w = id >>> 6;
+        long[] copy = Arrays.copyOf(words, Math.max(words.length, w + 1));
+        copy[w] |= 1L << id;
+        return new AxiomBitSet(copy, size + 1);
+    }
+
+    /**
+     * Checks if the set has an identifier.
+     *
+     * @param id
+     *            the identifier
+     * @return {@code true} if the identifier is in the set
+     */
+    public boolean contains(int id) {
+        int w = id >>> 6;
+        return w < words.length && (words[w] & (1L << id)) != 0;
+    }
+
+    /**
+     * Checks if every identifier of another set is in this one.
+     *
+     * @param other
+     *            the other set
+     * @return {@code true} if this set contains the other
+     */
+    public boolean containsAll(AxiomBitSet other) {
+        if (other.words.length > words.length)
+            return false;
+        for (int w = 0; w < other.words.length; w++) {
+            if ((other.words[w] & ~words[w]) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if this set and another one have an identifier in common.
+     *
+     * @param other
+     *            the other set
+     * @return {@code true} if the sets intersect
+     */
+    public boolean intersects(AxiomBitSet other) {
+        int n = Math.min(words.length, other.words.length);
+        for (int w = 0; w < n; w++) {
+            if ((words[w] & other.words[w]) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the first identifier of the set from a given one on.
+     *
+     * @param from
+     *            the identifier to start from
+     * @return the identifier, or {@code -1} if there is none
+     */
+    public int nextSetBit(int from) {
+        int w = from >>> 6;
+        if (w >= words.length)
+            return -1;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0)
+                return w * 64 + Long.numberOfTrailingZeros(word);
+            if (++w == words.length)
+                return -1;
+            word = words[w];
+        }
+    }
+
+    /**
+     * Gets the identifiers of the set in ascending order, as a
+     * {@link SetTrie} takes them.
+     *
+     * @return the identifiers
+     */
+    public int[] toArray() {
+        int[] ids = new int[size];
+        int n = 0;
+        for (int id = nextSetBit(0); id >= 0; id = nextSetBit(id + 1))
+            ids[n++] = id;
+        return ids;
+    }
+
+    /**
+     * Gets the number of identifiers of the set.
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof AxiomBitSet))
+            return false;
+        AxiomBitSet other = (AxiomBitSet) o;
+        return hash == other.hash && size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Builds a set from identifiers given one by one.
+     */
+    public static final class Builder {
+
+        private long[] words = new long[1];
+
+        private int size = 0;
+
+        /**
+         * Adds an identifier.
+         *
+         * @param id
+         *            the identifier
+         * @return this builder
+         */
+        public Builder add(int id) {
+            int w = id >>> 6;
+            if (w >= words.length)
+                words = Arrays.copyOf(words, Math.max(w + 1, words.length * 2));
+            if ((words[w] & (1L << id)) == 0) {
+                words[w] |= 1L << id;
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * Builds the set.
+         *
+         * @return the set
+         */
+        public AxiomBitSet build() {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0)
+                length--;
+            return new AxiomBitSet(Arrays.copyOf(words, length), size);
+        }
+    }
+}
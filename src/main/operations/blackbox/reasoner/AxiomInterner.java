@@ -0,0 +1,142 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gives each axiom a dense integer identifier, so that the sets of axioms
+ * handled by a search can be kept as {@link AxiomBitSet}s.
+ *
+ * The identifiers are given in the order the axioms are first interned,
+ * starting at zero. A search interns the axioms of its kernels only, so the
+ * bitsets of its paths stay as small as the number of those axioms, not as
+ * the belief set. The conversion back to sets of axioms should be made only
+ * where the OWL API needs them, e.g., to call the reasoner.
+ *
+ * The class is thread-safe.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class AxiomInterner {
+
+    /**
+     * The identifiers of the axioms.
+     */
+    private final Map<OWLAxiom, Integer> ids = new HashMap<>();
+
+    /**
+     * The axioms, by identifier.
+     */
+    private OWLAxiom[] axioms = new OWLAxiom[16];
+
+    /**
+     * Gets the identifier of an axiom, giving it a new one if it has none.
+     *
+     * @param axiom
+     *            the axiom
+     * @return the identifier of the axiom
+     */
+    public synchronized int intern(OWLAxiom axiom) {
+        Integer id = ids.get(axiom);
+        if (id != null)
+            return id;
+        int next = ids.size();
+        if (next == axioms.length)
+            axioms = Arrays.copyOf(axioms, next * 2);
+        axioms[next] = axiom;
+        ids.put(axiom, next);
+        return next;
+    }
+
+    /**
+     * Gets the identifier of an axiom.
+     *
+     * @param axiom
+     *            the axiom
+     * @return the identifier of the axiom, or {@code -1} if it has none
+     */
+    public synchronized int find(OWLAxiom axiom) {
+        Integer id = ids.get(axiom);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the axiom with an identifier.
+     *
+     * @param id
+     *            the identifier
+     * @return the axiom
+     */
+    public synchronized OWLAxiom axiom(int id) {
+        if (id < 0 || id >= ids.size())
+            throw new IndexOutOfBoundsException("No axiom with the identifier " + id);
+        return axioms[id];
+    }
+
+    /**
+     * Gets the number of interned axioms.
+     *
+     * @return the number of axioms
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * Converts a set of axioms, interning the ones that have no identifier.
+     *
+     * @param set
+     *            the set of axioms
+     * @return the bitset of their identifiers
+     */
+    public AxiomBitSet toBitSet(Set<OWLAxiom> set) {
+        AxiomBitSet.Builder builder = new AxiomBitSet.Builder();
+        for (OWLAxiom axiom : set)
+            builder.add(intern(axiom));
+        return builder.build();
+    }
+
+    /**
+     * Converts a bitset of identifiers back to a set of axioms.
+     *
+     * @param set
+     *            the bitset
+     * @return a new set with the axioms
+     */
+    public Set<OWLAxiom> toAxioms(AxiomBitSet set) {
+        Set<OWLAxiom> result = new HashSet<>();
+        addTo(result, set);
+        return result;
+    }
+
+    /**
+     * Adds the axioms of a bitset to a set of axioms.
+     *
+     * @param target
+     *            the set of axioms that is changed
+     * @param set
+     *            the bitset of the axioms to add
+     */
+    public void addTo(Set<OWLAxiom> target, AxiomBitSet set) {
+        for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1))
+            target.add(axiom(id));
+    }
+
+    /**
+     * Removes the axioms of a bitset from a set of axioms.
+     *
+     * @param target
+     *            the set of axioms that is changed
+     * @param set
+     *            the bitset of the axioms to remove
+     */
+    public void removeFrom(Set<OWLAxiom> target, AxiomBitSet set) {
+        for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1))
+            target.remove(axiom(id));
+    }
+}
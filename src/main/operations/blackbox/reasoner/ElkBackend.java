@@ -0,0 +1,71 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.profiles.OWL2ELProfile;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * The ELK backend, complete for OWL 2 EL.
+ *
+ * ELK is not a dependency of the plug-in: the backend is available only if
+ * ELK is in the classpath. Besides the profile, ELK must support entailment
+ * checking for every logical axiom type of the ontology.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ElkBackend implements ReasonerBackend {
+
+    /**
+     * The class of the ELK reasoner factory.
+     */
+    private static final String FACTORY_CLASS = "org.semanticweb.elk.owlapi.ElkReasonerFactory";
+
+    @Override
+    public String getName() {
+        return "elk";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            Class.forName(FACTORY_CLASS);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isCompleteFor(OWLOntology ontology) {
+        if (!new OWL2ELProfile().checkOntology(ontology).isInProfile())
+            return false;
+        OWLReasoner reasoner = getReasonerFactory().createNonBufferingReasoner(ontology);
+        try {
+            for (OWLAxiom axiom : ontology.getLogicalAxioms()) {
+                AxiomType<?> type = axiom.getAxiomType();
+                if (!reasoner.isEntailmentCheckingSupported(type))
+                    return false;
+            }
+            return true;
+        } finally {
+            reasoner.dispose();
+        }
+    }
+
+    @Override
+    public int getCost() {
+        return 10;
+    }
+
+    @Override
+    public OWLReasonerFactory getReasonerFactory() {
+        try {
+            return (OWLReasonerFactory) Class.forName(FACTORY_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate the ELK reasoner.", e);
+        }
+    }
+}
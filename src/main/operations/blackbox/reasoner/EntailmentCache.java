@@ -0,0 +1,270 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A bounded cache of the results of entailment and consistency checks.
+ *
+ * A set of axioms is identified by a fingerprint made of its size and of two
+ * 64-bit sums over its axioms, so the cache does not keep the sets
+ * themselves. Each axiom contributes the two halves of a SHA-256 digest of
+ * its rendering, which are kept for the most recently used axioms; unlike
+ * its 32-bit hash code, they do not collide for distinct axioms in practice.
+ * When the cache is full, the least recently used result is evicted, and so
+ * is the digest of the least recently used axiom, so neither the results
+ * nor the digests grow beyond the maximum size.
+ *
+ * A {@code null} formula stands for a contradiction, so consistency checks
+ * are stored as whether the set is inconsistent.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class EntailmentCache {
+
+    /**
+     * The default maximum number of results kept by the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 100000;
+
+    /**
+     * The maximum number of results kept by the cache.
+     */
+    private int maxSize;
+
+    /**
+     * The cached results, in access order.
+     */
+    private LinkedHashMap<Key, Boolean> results;
+
+    /**
+     * The number of checks answered by the cache.
+     */
+    private long hits = 0;
+
+    /**
+     * The number of checks not answered by the cache.
+     */
+    private long misses = 0;
+
+    /**
+     * The number of results evicted from the cache.
+     */
+    private long evictions = 0;
+
+    /**
+     * The two halves of the digest of the most recently used axioms, in
+     * access order.
+     */
+    private LinkedHashMap<OWLAxiom, long[]> digests;
+
+    /**
+     * Instantiates the class with the default maximum size.
+     */
+    public EntailmentCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Instantiates the class.
+     *
+     * @param maxSize
+     *            the maximum number of results kept by the cache
+     */
+    public EntailmentCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                if (size() > EntailmentCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.digests = new LinkedHashMap<OWLAxiom, long[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OWLAxiom, long[]> eldest) {
+                return size() > EntailmentCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Computes the key of a check.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula, or {@code null} for a contradiction
+     * @return the key
+     */
+    public Key key(Set<OWLAxiom> kb, OWLAxiom entailment) {
+        long first = 0;
+        long second = 0;
+        for (OWLAxiom axiom : kb) {
+            long[] digest = digest(axiom);
+            first += digest[0];
+            second += digest[1];
+        }
+        return new Key(kb.size(), first, second, entailment);
+    }
+
+    /**
+     * Gets a cached result.
+     *
+     * @param key
+     *            the key of the check
+     * @return the result, or {@code null} if it is not in the cache
+     */
+    public synchronized Boolean get(Key key) {
+        Boolean result = results.get(key);
+        if (result == null)
+            misses++;
+        else
+            hits++;
+        return result;
+    }
+
+    /**
+     * Stores a result.
+     *
+     * @param key
+     *            the key of the check
+     * @param result
+     *            the result of the check
+     */
+    public synchronized void put(Key key, boolean result) {
+        results.put(key, result);
+    }
+
+    /**
+     * Gets the number of checks answered by the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of checks not answered by the cache.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of results evicted from the cache.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of results in the cache.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Gets the maximum number of results kept by the cache.
+     *
+     * @return the maximum size of the cache
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Removes every result from the cache. The counters are kept.
+     */
+    public synchronized void clear() {
+        results.clear();
+        synchronized (digests) {
+            digests.clear();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d hits, %d misses, %d evictions, %d/%d entries",
+                hits, misses, evictions, results.size(), maxSize);
+    }
+
+    /**
+     * Gets the two 64-bit halves of the SHA-256 digest of an axiom's
+     * rendering, computing them unless the axiom was used recently.
+     */
+    private long[] digest(OWLAxiom axiom) {
+        long[] digest;
+        synchronized (digests) {
+            digest = digests.get(axiom);
+        }
+        if (digest != null)
+            return digest;
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(axiom.toString().getBytes(StandardCharsets.UTF_8)));
+            digest = new long[] { bytes.getLong(), bytes.getLong() };
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        synchronized (digests) {
+            digests.put(axiom, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * The key of a check: the fingerprint of the set of axioms and the
+     * formula.
+     */
+    public static final class Key {
+
+        private final int size;
+        private final long first;
+        private final long second;
+        private final OWLAxiom entailment;
+
+        private Key(int size, long first, long second, OWLAxiom entailment) {
+            this.size = size;
+            this.first = first;
+            this.second = second;
+            this.entailment = entailment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return size == other.size && first == other.first && second == other.second
+                    && Objects.equals(entailment, other.entailment);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (first ^ (first >>> 32)) * 31 + Objects.hashCode(entailment);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.HermiT.ReasonerFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * The HermiT backend, complete for OWL 2 DL.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class HermiTBackend implements ReasonerBackend {
+
+    @Override
+    public String getName() {
+        return "hermit";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isCompleteFor(OWLOntology ontology) {
+        return true;
+    }
+
+    @Override
+    public int getCost() {
+        return 100;
+    }
+
+    @Override
+    public OWLReasonerFactory getReasonerFactory() {
+        return new ReasonerFactory();
+    }
+}
@@ -0,0 +1,175 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A buffering reasoner attached to its own working ontology.
+ *
+ * Instead of creating a new ontology and a new reasoner for every check, the
+ * working ontology is changed to match the requested set of axioms (only the
+ * difference is applied) and the reasoner is flushed.
+ *
+ * Each instance has its own ontology manager, so different instances can be
+ * used by different threads. A single instance is not thread-safe. The time
+ * spent on each check is recorded in {@link ReasonerTimings}.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class IncrementalReasoner {
+
+    /**
+     * A factory that constructs the reasoner.
+     */
+    private OWLReasonerFactory reasonerFactory;
+
+    /**
+     * The manager of the working ontology.
+     */
+    private OWLOntologyManager manager;
+
+    /**
+     * The working ontology.
+     */
+    private OWLOntology ontology;
+
+    /**
+     * The buffering reasoner attached to the working ontology.
+     */
+    private volatile OWLReasoner reasoner;
+
+    /**
+     * The axioms currently in the working ontology.
+     */
+    private Set<OWLAxiom> loaded = new HashSet<>();
+
+    /**
+     * Instantiates the class.
+     *
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public IncrementalReasoner(OWLReasonerFactory reasonerFactory) throws OWLOntologyCreationException {
+        this.reasonerFactory = reasonerFactory;
+        this.manager = OWLManager.createOWLOntologyManager();
+        this.ontology = manager.createOntology();
+        this.reasoner = reasonerFactory.createReasoner(ontology);
+    }
+
+    /**
+     * Changes the working ontology so that it contains exactly the given
+     * axioms, and flushes the pending changes to the reasoner.
+     *
+     * @param kb
+     *            the axioms that must be in the working ontology
+     */
+    public void load(Set<OWLAxiom> kb) {
+        Set<OWLAxiom> toRemove = new HashSet<>();
+        for (OWLAxiom axiom : loaded) {
+            if (!kb.contains(axiom))
+                toRemove.add(axiom);
+        }
+        Set<OWLAxiom> toAdd = new HashSet<>();
+        for (OWLAxiom axiom : kb) {
+            if (!loaded.contains(axiom))
+                toAdd.add(axiom);
+        }
+        if (toRemove.isEmpty() && toAdd.isEmpty())
+            return;
+        manager.removeAxioms(ontology, toRemove);
+        manager.addAxioms(ontology, toAdd);
+        loaded.removeAll(toRemove);
+        loaded.addAll(toAdd);
+        try {
+            reasoner.flush();
+        } catch (IllegalArgumentException e) {
+            // HermiT refuses some ABox-only change sets (e.g. assertions of
+            // fresh classes) when it tries to apply them incrementally
+            reasoner.dispose();
+            reasoner = reasonerFactory.createReasoner(ontology);
+        }
+    }
+
+    /**
+     * Checks if a given set of axioms entails a given formula.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula
+     * @return {@code true} if the formula is entailed, {@code false} otherwise
+     */
+    public boolean isEntailed(Set<OWLAxiom> kb, OWLAxiom entailment) {
+        long start = System.nanoTime();
+        try {
+            load(kb);
+            return reasoner.isEntailed(entailment);
+        } finally {
+            ReasonerTimings.record(getReasonerName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Checks if a given set of axioms is consistent.
+     *
+     * @param kb
+     *            the set of axioms
+     * @return {@code true} if the set is consistent, {@code false} otherwise
+     */
+    public boolean isConsistent(Set<OWLAxiom> kb) {
+        long start = System.nanoTime();
+        try {
+            load(kb);
+            return reasoner.isConsistent();
+        } finally {
+            ReasonerTimings.record(getReasonerName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the name of the reasoner, or the name of its factory's class if
+     * the factory does not give one.
+     *
+     * @return the name of the reasoner
+     */
+    public String getReasonerName() {
+        String name = reasonerFactory.getReasonerName();
+        return name != null ? name : reasonerFactory.getClass().getName();
+    }
+
+    /**
+     * Asks the reasoner to stop the check in progress. May be called from
+     * another thread.
+     */
+    public void interrupt() {
+        reasoner.interrupt();
+    }
+
+    /**
+     * Gets the underlying reasoner.
+     *
+     * @return the reasoner
+     */
+    public OWLReasoner getReasoner() {
+        return reasoner;
+    }
+
+    /**
+     * Disposes the reasoner and the working ontology.
+     */
+    public void dispose() {
+        reasoner.dispose();
+        manager.removeOntology(ontology);
+        loaded.clear();
+    }
+}
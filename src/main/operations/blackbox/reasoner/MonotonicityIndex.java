@@ -0,0 +1,177 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers entailment checks from previous results, using the monotonicity of
+ * description logics: a superset of a set that entails a formula also entails
+ * it, and a subset of a set that does not entail a formula does not entail it
+ * either.
+ *
+ * For each formula, the sets known to entail it and the sets known not to
+ * entail it are kept in two set-tries. Only the minimal entailing sets and
+ * the maximal non-entailing sets are stored, since the others add no
+ * information. A {@code null} formula stands for a contradiction, i.e., an
+ * inconsistent set "entails" it.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class MonotonicityIndex {
+
+    /**
+     * The identifiers given to the axioms.
+     */
+    private Map<OWLAxiom, Integer> ids = new HashMap<>();
+
+    /**
+     * For each formula, the sets known to entail it.
+     */
+    private Map<OWLAxiom, SetTrie> entailing = new HashMap<>();
+
+    /**
+     * For each formula, the sets known not to entail it.
+     */
+    private Map<OWLAxiom, SetTrie> nonEntailing = new HashMap<>();
+
+    /**
+     * The maximum number of nodes of each set-trie.
+     */
+    private int maxNodes;
+
+    /**
+     * The number of checks submitted to the index.
+     */
+    private long lookups = 0;
+
+    /**
+     * The number of checks answered by the index, i.e., of reasoner calls
+     * skipped.
+     */
+    private long skipped = 0;
+
+    /**
+     * Instantiates the class with the default size of the set-tries.
+     */
+    public MonotonicityIndex() {
+        this(SetTrie.DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Instantiates the class.
+     *
+     * @param maxNodes
+     *            the maximum number of nodes of each set-trie
+     */
+    public MonotonicityIndex(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Tries to answer an entailment check without reasoning.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula, or {@code null} for a contradiction
+     * @return the answer, or {@code null} if it cannot be deduced from the
+     *         known results
+     */
+    public synchronized Boolean isEntailed(Set<OWLAxiom> kb, OWLAxiom entailment) {
+        lookups++;
+        SetTrie yes = entailing.get(entailment);
+        SetTrie no = nonEntailing.get(entailment);
+        if (yes == null && no == null)
+            return null;
+        int[] known = new int[kb.size()];
+        int n = 0;
+        boolean unknownAxiom = false;
+        for (OWLAxiom axiom : kb) {
+            Integer id = ids.get(axiom);
+            if (id == null)
+                unknownAxiom = true;
+            else
+                known[n++] = id;
+        }
+        known = Arrays.copyOf(known, n);
+        Arrays.sort(known);
+        // axioms never recorded cannot be part of a stored set
+        if (yes != null && yes.containsSubsetOf(known)) {
+            skipped++;
+            return true;
+        }
+        if (no != null && !unknownAxiom && no.containsSupersetOf(known)) {
+            skipped++;
+            return false;
+        }
+        return null;
+    }
+
+    /**
+     * Records the result of an entailment check.
+     *
+     * @param kb
+     *            the set of axioms
+     * @param entailment
+     *            the formula, or {@code null} for a contradiction
+     * @param isEntailed
+     *            whether the set entails the formula
+     */
+    public synchronized void record(Set<OWLAxiom> kb, OWLAxiom entailment, boolean isEntailed) {
+        int[] set = new int[kb.size()];
+        int n = 0;
+        for (OWLAxiom axiom : kb) {
+            Integer id = ids.get(axiom);
+            if (id == null) {
+                id = ids.size();
+                ids.put(axiom, id);
+            }
+            set[n++] = id;
+        }
+        Arrays.sort(set);
+        Map<OWLAxiom, SetTrie> tries = isEntailed ? entailing : nonEntailing;
+        SetTrie trie = tries.get(entailment);
+        if (trie == null) {
+            trie = new SetTrie(maxNodes);
+            tries.put(entailment, trie);
+        }
+        if (isEntailed ? trie.containsSubsetOf(set) : trie.containsSupersetOf(set))
+            return;
+        trie.add(set);
+    }
+
+    /**
+     * Gets the number of checks submitted to the index.
+     *
+     * @return the number of lookups
+     */
+    public synchronized long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Gets the number of checks answered by the index, i.e., the number of
+     * reasoner calls skipped.
+     *
+     * @return the number of skipped calls
+     */
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public synchronized String toString() {
+        int yes = 0;
+        for (SetTrie trie : entailing.values())
+            yes += trie.size();
+        int no = 0;
+        for (SetTrie trie : nonEntailing.values())
+            no += trie.size();
+        return String.format("%d of %d checks skipped, %d entailing and %d non-entailing sets known",
+                skipped, lookups, yes, no);
+    }
+}
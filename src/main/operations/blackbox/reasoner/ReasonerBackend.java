@@ -0,0 +1,55 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * Interface for reasoner backends.
+ *
+ * A backend wraps a reasoner implementation and tells for which ontologies it
+ * is complete. Backends other than the built-in ones can be plugged in by
+ * listing them in {@code META-INF/services/main.operations.blackbox.reasoner.ReasonerBackend}.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public interface ReasonerBackend {
+
+    /**
+     * Returns the name used to select the backend from the command line.
+     *
+     * @return the name of the backend
+     */
+    public String getName();
+
+    /**
+     * Returns whether the reasoner implementation can be loaded.
+     *
+     * @return {@code true} if the backend can be used
+     */
+    public boolean isAvailable();
+
+    /**
+     * Returns whether the reasoner is sound and complete for the entailment
+     * checks over the given ontology, which already contains the formula.
+     *
+     * @param ontology
+     *            the ontology
+     * @return {@code true} if the reasoner is complete for the ontology
+     */
+    public boolean isCompleteFor(OWLOntology ontology);
+
+    /**
+     * Returns the relative cost of the reasoner. When the backend is chosen
+     * automatically, the cheapest complete backend is used.
+     *
+     * @return the cost of the reasoner
+     */
+    public int getCost();
+
+    /**
+     * Returns a factory that constructs the reasoner.
+     *
+     * @return the reasoner factory
+     */
+    public OWLReasonerFactory getReasonerFactory();
+}
@@ -0,0 +1,123 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * The registry of reasoner backends.
+ *
+ * HermiT and ELK are built in; other backends are found with a
+ * {@link ServiceLoader}. A backend with the name of a built-in one replaces
+ * it.
+ *
+ * ELK is not in the dependencies of the build, so the ELK backend is
+ * available only if its jar is added to the classpath; without it,
+ * {@value #AUTO} always selects HermiT.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ReasonerBackends {
+
+    /**
+     * The name that selects the backend according to the ontology's profile.
+     */
+    public static final String AUTO = "auto";
+
+    /**
+     * Returns every known backend, available or not.
+     *
+     * @return the backends
+     */
+    public static List<ReasonerBackend> getBackends() {
+        List<ReasonerBackend> backends = new ArrayList<>();
+        for (ReasonerBackend backend : ServiceLoader.load(ReasonerBackend.class))
+            backends.add(backend);
+        for (ReasonerBackend builtIn : new ReasonerBackend[] { new HermiTBackend(), new ElkBackend() }) {
+            boolean replaced = false;
+            for (ReasonerBackend backend : backends)
+                replaced |= backend.getName().equalsIgnoreCase(builtIn.getName());
+            if (!replaced)
+                backends.add(builtIn);
+        }
+        return backends;
+    }
+
+    /**
+     * Returns the backend with a given name.
+     *
+     * @param name
+     *            the name of the backend
+     * @return the backend, or {@code null} if there is none with that name
+     */
+    public static ReasonerBackend get(String name) {
+        for (ReasonerBackend backend : getBackends()) {
+            if (backend.getName().equalsIgnoreCase(name))
+                return backend;
+        }
+        return null;
+    }
+
+    /**
+     * Selects the backend for an operation. If the name is {@link #AUTO},
+     * the cheapest available backend that is complete for the belief set and
+     * the formula is chosen.
+     *
+     * @param name
+     *            the name of the backend, or {@link #AUTO}
+     * @param kb
+     *            the belief set
+     * @param formula
+     *            the formula
+     * @return the backend, or {@code null} if it is unknown or unavailable
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public static ReasonerBackend select(String name, Set<OWLAxiom> kb, OWLAxiom formula)
+            throws OWLOntologyCreationException {
+        if (!AUTO.equalsIgnoreCase(name)) {
+            ReasonerBackend backend = get(name);
+            return backend != null && backend.isAvailable() ? backend : null;
+        }
+        ReasonerBackend cheapest = null;
+        for (ReasonerBackend backend : getBackends()) {
+            if (cheapest != null && backend.getCost() >= cheapest.getCost())
+                continue;
+            if (backend.isAvailable() && isCompleteFor(backend, kb, formula))
+                cheapest = backend;
+        }
+        return cheapest;
+    }
+
+    /**
+     * Checks if a backend is complete for the entailment checks of a formula
+     * over a set of axioms. The operations that close the belief set under
+     * Cn check the closure again, since it may be out of the profile of the
+     * belief set.
+     *
+     * @param backend
+     *            the backend
+     * @param kb
+     *            the set of axioms
+     * @param formula
+     *            the formula
+     * @return {@code true} if the reasoner is complete for the axioms and
+     *         the formula
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public static boolean isCompleteFor(ReasonerBackend backend, Set<OWLAxiom> kb, OWLAxiom formula)
+            throws OWLOntologyCreationException {
+        Set<OWLAxiom> axioms = new HashSet<>(kb);
+        axioms.add(formula);
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        return backend.isCompleteFor(manager.createOntology(axioms));
+    }
+}
@@ -0,0 +1,112 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A pool of incremental reasoners.
+ *
+ * A reasoner is lent out by {@link #borrow()} and must be given back by
+ * {@link #release(IncrementalReasoner)}. The most recently released reasoner
+ * is lent first, since its working ontology is usually the closest to the
+ * next check. New reasoners are only created when all of them are in use.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ReasonerPool {
+
+    /**
+     * A factory that constructs the reasoner.
+     */
+    private OWLReasonerFactory reasonerFactory;
+
+    /**
+     * The reasoners that are not lent out.
+     */
+    private Deque<IncrementalReasoner> idle = new ArrayDeque<>();
+
+    /**
+     * Every reasoner created by this pool.
+     */
+    private List<IncrementalReasoner> created = new ArrayList<>();
+
+    /**
+     * Instantiates the class.
+     *
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     */
+    public ReasonerPool(OWLReasonerFactory reasonerFactory) {
+        this.reasonerFactory = reasonerFactory;
+    }
+
+    /**
+     * Lends a reasoner.
+     *
+     * @return a reasoner that is not used by anyone else
+     * @throws OWLOntologyCreationException
+     *             OWLOntologyCreationException
+     */
+    public synchronized IncrementalReasoner borrow() throws OWLOntologyCreationException {
+        if (!idle.isEmpty())
+            return idle.pop();
+        IncrementalReasoner reasoner = new IncrementalReasoner(reasonerFactory);
+        created.add(reasoner);
+        return reasoner;
+    }
+
+    /**
+     * Takes back a lent reasoner.
+     *
+     * @param reasoner
+     *            the reasoner
+     */
+    public synchronized void release(IncrementalReasoner reasoner) {
+        idle.push(reasoner);
+    }
+
+    /**
+     * Takes back a lent reasoner that must not be used again, e.g., because
+     * a check has been interrupted, and disposes it.
+     *
+     * @param reasoner
+     *            the reasoner
+     */
+    public synchronized void discard(IncrementalReasoner reasoner) {
+        created.remove(reasoner);
+        reasoner.dispose();
+    }
+
+    /**
+     * Gets the factory that constructs the reasoners of this pool.
+     *
+     * @return the reasoner factory
+     */
+    public OWLReasonerFactory getReasonerFactory() {
+        return reasonerFactory;
+    }
+
+    /**
+     * Gets the number of reasoners created by this pool.
+     *
+     * @return the number of reasoners
+     */
+    public synchronized int size() {
+        return created.size();
+    }
+
+    /**
+     * Disposes every reasoner created by this pool.
+     */
+    public synchronized void dispose() {
+        for (IncrementalReasoner reasoner : created)
+            reasoner.dispose();
+        created.clear();
+        idle.clear();
+    }
+}
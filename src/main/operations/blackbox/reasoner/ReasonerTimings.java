@@ -0,0 +1,61 @@
+package main.operations.blackbox.reasoner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records, for each reasoner, the number of checks performed and the time
+ * spent on them, including the loading of the changes.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ReasonerTimings {
+
+    /**
+     * For each reasoner name, the number of checks and the nanoseconds spent.
+     */
+    private static Map<String, long[]> timings = new LinkedHashMap<>();
+
+    /**
+     * Records a check.
+     *
+     * @param reasonerName
+     *            the name of the reasoner
+     * @param nanos
+     *            the time spent on the check, in nanoseconds
+     */
+    public static synchronized void record(String reasonerName, long nanos) {
+        long[] timing = timings.get(reasonerName);
+        if (timing == null) {
+            timing = new long[2];
+            timings.put(reasonerName, timing);
+        }
+        timing[0]++;
+        timing[1] += nanos;
+    }
+
+    /**
+     * Removes every recorded check.
+     */
+    public static synchronized void clear() {
+        timings.clear();
+    }
+
+    /**
+     * Returns a summary of the checks of each reasoner.
+     *
+     * @return the summary
+     */
+    public static synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> e : timings.entrySet()) {
+            long checks = e.getValue()[0];
+            long nanos = e.getValue()[1];
+            if (sb.length() > 0)
+                sb.append("; ");
+            sb.append(String.format("%s: %d checks in %.1f ms (%.3f ms/check)", e.getKey(), checks,
+                    nanos / 1e6, checks == 0 ? 0.0 : nanos / 1e6 / checks));
+        }
+        return sb.length() == 0 ? "no checks" : sb.toString();
+    }
+}
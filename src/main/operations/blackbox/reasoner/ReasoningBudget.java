@@ -0,0 +1,248 @@
+package main.operations.blackbox.reasoner;
+
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time allowed to the reasoning of an operation: a timeout for each
+ * check and a deadline for the whole operation.
+ *
+ * A check that exceeds its time is stopped through the reasoner's
+ * {@link OWLReasoner#interrupt()} and a {@link TimeOutException} is thrown.
+ * Once the budget has run out, every later check and every call to
+ * {@link #checkExpired()} throws it too, so the algorithms stop at the next
+ * node and return what they have found so far. The budget can also be
+ * cancelled, which stops the operation in the same way.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ReasoningBudget {
+
+    /**
+     * The thread that interrupts the reasoners. A closed watch removes its
+     * alarm at once, instead of keeping it, and the reasoner it refers to,
+     * until the alarm's delay runs out.
+     */
+    private static final ScheduledExecutorService WATCHDOG = createWatchdog();
+
+    /**
+     * The maximum time of each check, in milliseconds, or {@code 0} for no
+     * limit.
+     */
+    private long checkTimeout;
+
+    /**
+     * The {@link System#nanoTime()} at which the operation must stop, or
+     * {@link Long#MAX_VALUE} for no limit.
+     */
+    private long deadline;
+
+    /**
+     * Whether the budget has run out.
+     */
+    private volatile boolean expired = false;
+
+    /**
+     * The checks in progress.
+     */
+    private final Set<Watch> active = Collections.newSetFromMap(new ConcurrentHashMap<Watch, Boolean>());
+
+    /**
+     * Instantiates the class. The deadline counts from now.
+     *
+     * @param checkTimeout
+     *            the maximum time of each check, in milliseconds, or
+     *            {@code 0} for no limit
+     * @param timeout
+     *            the maximum time of the operation, in milliseconds, or
+     *            {@code 0} for no limit
+     */
+    public ReasoningBudget(long checkTimeout, long timeout) {
+        this.checkTimeout = checkTimeout;
+        this.deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Instantiates the class with the same limits as another budget, but it
+     * runs out and is cancelled on its own.
+     *
+     * @param budget
+     *            the budget whose limits are copied
+     */
+    public ReasoningBudget(ReasoningBudget budget) {
+        this.checkTimeout = budget.checkTimeout;
+        this.deadline = budget.deadline;
+    }
+
+    /**
+     * Checks whether the budget has run out.
+     *
+     * @throws TimeOutException
+     *             if the budget has run out
+     */
+    public void checkExpired() {
+        if (!expired && deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0)
+            expired = true;
+        if (expired)
+            throw new TimeOutException("The reasoning budget has run out.");
+    }
+
+    /**
+     * Gets whether the budget has run out.
+     *
+     * @return {@code true} if the budget has run out
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Makes the budget run out at once: the checks in progress are
+     * interrupted and every later check fails. May be called from another
+     * thread.
+     */
+    public void cancel() {
+        expired = true;
+        for (Watch watch : active)
+            watch.fire();
+    }
+
+    /**
+     * Starts watching a check made by a reasoner. The returned watch must be
+     * closed when the check ends.
+     *
+     * @param reasoner
+     *            the reasoner that makes the check
+     * @return the watch of the check
+     * @throws TimeOutException
+     *             if the budget has already run out
+     */
+    public Watch watch(final OWLReasoner reasoner) {
+        return watch(new Runnable() {
+            @Override
+            public void run() {
+                reasoner.interrupt();
+            }
+        });
+    }
+
+    /**
+     * Starts watching a check made by an incremental reasoner. The returned watch
+     * must be closed when the check ends.
+     *
+     * @param reasoner
+     *            the reasoner that makes the check
+     * @return the watch of the check
+     * @throws TimeOutException
+     *             if the budget has already run out
+     */
+    public Watch watch(final IncrementalReasoner reasoner) {
+        return watch(new Runnable() {
+            @Override
+            public void run() {
+                reasoner.interrupt();
+            }
+        });
+    }
+
+    private static ScheduledExecutorService createWatchdog() {
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "reasoning-budget");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        watchdog.setRemoveOnCancelPolicy(true);
+        return watchdog;
+    }
+
+    private Watch watch(Runnable interrupt) {
+        checkExpired();
+        long delay = Long.MAX_VALUE;
+        if (checkTimeout > 0)
+            delay = TimeUnit.MILLISECONDS.toNanos(checkTimeout);
+        if (deadline != Long.MAX_VALUE)
+            delay = Math.min(delay, deadline - System.nanoTime());
+        return new Watch(interrupt, delay);
+    }
+
+    /**
+     * The watch of a single check.
+     */
+    public final class Watch implements AutoCloseable {
+
+        private final Runnable interrupt;
+
+        private final ScheduledFuture<?> alarm;
+
+        private volatile boolean fired = false;
+
+        private Watch(Runnable interrupt, long delay) {
+            this.interrupt = interrupt;
+            active.add(this);
+            if (delay == Long.MAX_VALUE) {
+                alarm = null;
+            } else {
+                alarm = WATCHDOG.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        fire();
+                    }
+                }, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+            }
+            // the budget may have been cancelled before the watch was active
+            if (expired)
+                fire();
+        }
+
+        private void fire() {
+            fired = true;
+            expired = true;
+            interrupt.run();
+        }
+
+        /**
+         * Gets whether the check has been interrupted.
+         *
+         * @return {@code true} if the check ran out of time
+         */
+        public boolean hasFired() {
+            return fired;
+        }
+
+        /**
+         * Translates the exception thrown by an interrupted check.
+         *
+         * @param e
+         *            the exception thrown by the reasoner
+         * @return a {@link TimeOutException} if the check has been
+         *         interrupted, or the exception itself otherwise
+         */
+        public RuntimeException translate(RuntimeException e) {
+            if (fired && !(e instanceof TimeOutException))
+                return new TimeOutException("The check has run out of time.", e);
+            return e;
+        }
+
+        /**
+         * Stops watching the check.
+         */
+        @Override
+        public void close() {
+            active.remove(this);
+            if (alarm != null)
+                alarm.cancel(false);
+        }
+    }
+}
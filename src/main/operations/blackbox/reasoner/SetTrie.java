@@ -0,0 +1,198 @@
+package main.operations.blackbox.reasoner;
+
+import java.util.Arrays;
+
+/**
+ * A set-trie: a trie of sets of integers that answers subset and superset
+ * queries without scanning every stored set.
+ *
+ * Every set is given as an array of distinct integers in ascending order.
+ * The number of nodes is bounded; once the limit is reached, new sets are
+ * simply not stored, so the answers remain correct but less complete.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class SetTrie {
+
+    /**
+     * The default maximum number of nodes of the trie.
+     */
+    public static final int DEFAULT_MAX_NODES = 500000;
+
+    private static final int[] NO_KEYS = new int[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * A node of the trie. The children are kept sorted by key.
+     */
+    private static class Node {
+        int[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int size = 0;
+        boolean terminal = false;
+
+        Node child(int key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(int key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            if (i >= 0)
+                return children[i];
+            i = -i - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            Node node = new Node();
+            keys[i] = key;
+            children[i] = node;
+            size++;
+            return node;
+        }
+    }
+
+    /**
+     * The root of the trie, which represents the empty set.
+     */
+    private Node root = new Node();
+
+    /**
+     * The maximum number of nodes of the trie.
+     */
+    private int maxNodes;
+
+    /**
+     * The number of nodes of the trie.
+     */
+    private int nodes = 1;
+
+    /**
+     * The number of stored sets.
+     */
+    private int sets = 0;
+
+    /**
+     * Instantiates the class with the default maximum number of nodes.
+     */
+    public SetTrie() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Instantiates the class.
+     *
+     * @param maxNodes
+     *            the maximum number of nodes of the trie
+     */
+    public SetTrie(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Stores a set.
+     *
+     * @param set
+     *            the elements of the set, in ascending order
+     * @return {@code true} if the set is stored, {@code false} if the trie
+     *         is full
+     */
+    public boolean add(int[] set) {
+        Node node = root;
+        int depth = 0;
+        while (depth < set.length) {
+            Node child = node.child(set[depth]);
+            if (child == null)
+                break;
+            node = child;
+            depth++;
+        }
+        if (nodes + set.length - depth > maxNodes)
+            return false;
+        for (; depth < set.length; depth++) {
+            node = node.addChild(set[depth]);
+            nodes++;
+        }
+        if (!node.terminal) {
+            node.terminal = true;
+            sets++;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if some stored set is a subset of the given set.
+     *
+     * @param set
+     *            the elements of the set, in ascending order
+     * @return {@code true} if a subset of the set is stored
+     */
+    public boolean containsSubsetOf(int[] set) {
+        return containsSubsetOf(root, set, 0);
+    }
+
+    private boolean containsSubsetOf(Node node, int[] set, int from) {
+        if (node.terminal)
+            return true;
+        if (node.size < set.length - from) {
+            for (int i = 0; i < node.size; i++) {
+                int j = Arrays.binarySearch(set, from, set.length, node.keys[i]);
+                if (j >= 0 && containsSubsetOf(node.children[i], set, j + 1))
+                    return true;
+            }
+        } else {
+            for (int j = from; j < set.length; j++) {
+                Node child = node.child(set[j]);
+                if (child != null && containsSubsetOf(child, set, j + 1))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if some stored set is a superset of the given set.
+     *
+     * @param set
+     *            the elements of the set, in ascending order
+     * @return {@code true} if a superset of the set is stored
+     */
+    public boolean containsSupersetOf(int[] set) {
+        return sets > 0 && containsSupersetOf(root, set, 0);
+    }
+
+    private boolean containsSupersetOf(Node node, int[] set, int from) {
+        // every node lies on the path of at least one stored set
+        if (from == set.length)
+            return true;
+        int next = set[from];
+        for (int i = 0; i < node.size && node.keys[i] <= next; i++) {
+            if (containsSupersetOf(node.children[i], set, node.keys[i] == next ? from + 1 : from))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of stored sets.
+     *
+     * @return the number of sets
+     */
+    public int size() {
+        return sets;
+    }
+
+    /**
+     * Gets the number of nodes of the trie.
+     *
+     * @return the number of nodes
+     */
+    public int getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,268 @@
+package main.operations.blackbox.reasoner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The map of the subsets of a belief set that are still unexplored by a
+ * combined enumeration of kernels and remainders (see
+ * {@link main.operations.blackbox.MarcoEnumerator}).
+ *
+ * The axioms are the variables of a propositional formula, true for the
+ * axioms in a subset, and the formula is a conjunction of clauses of two
+ * kinds: a found element of the kernel set blocks its supersets, i.e., one
+ * of its axioms must be out; a found element of the remainder set blocks its
+ * subsets, i.e., one of the axioms out of it must be in. A subset is
+ * unexplored if it satisfies every clause, and it is found by a small DPLL
+ * solver with unit propagation, which branches on the open clause with
+ * fewest unassigned axioms.
+ *
+ * The class is not thread-safe.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class SubsetMap {
+
+    /**
+     * The number of axioms.
+     */
+    private final int size;
+
+    /**
+     * The clauses that require an axiom out, from the elements of the kernel
+     * set.
+     */
+    private final List<AxiomBitSet> upClauses = new ArrayList<>();
+
+    /**
+     * The clauses that require an axiom in, from the complements of the
+     * elements of the remainder set.
+     */
+    private final List<AxiomBitSet> downClauses = new ArrayList<>();
+
+    /**
+     * Instantiates the class.
+     *
+     * @param size
+     *            the number of axioms, whose identifiers are from {@code 0}
+     *            to {@code size - 1}
+     */
+    public SubsetMap(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Blocks a set and its supersets, which contain an element of the kernel
+     * set.
+     *
+     * @param kernel
+     *            the identifiers of the axioms of the element
+     */
+    public void blockUp(AxiomBitSet kernel) {
+        upClauses.add(kernel);
+    }
+
+    /**
+     * Blocks a set and its subsets, which are contained in an element of the
+     * remainder set.
+     *
+     * @param remainder
+     *            the identifiers of the axioms of the element
+     */
+    public void blockDown(AxiomBitSet remainder) {
+        AxiomBitSet.Builder complement = new AxiomBitSet.Builder();
+        for (int id = 0; id < size; id++) {
+            if (!remainder.contains(id))
+                complement.add(id);
+        }
+        downClauses.add(complement.build());
+    }
+
+    /**
+     * Gets the number of blocking clauses.
+     *
+     * @return the number of clauses
+     */
+    public int getClauses() {
+        return upClauses.size() + downClauses.size();
+    }
+
+    /**
+     * Finds an unexplored subset. A maximal one has no unexplored proper
+     * superset, and a minimal one has no unexplored proper subset.
+     *
+     * @param maximal
+     *            {@code true} for a maximal subset, {@code false} for a
+     *            minimal one
+     * @return the identifiers of the axioms of the subset, or {@code null} if
+     *         every subset has been explored
+     */
+    public AxiomBitSet findSeed(boolean maximal) {
+        BitSet in = new BitSet(size);
+        BitSet out = new BitSet(size);
+        if (!solve(in, out))
+            return null;
+        // the axioms left unassigned satisfy every clause either way
+        for (int id = 0; id < size; id++) {
+            if (!in.get(id) && !out.get(id))
+                (maximal ? in : out).set(id);
+        }
+        // a single pass suffices: an axiom that cannot be moved now cannot be
+        // moved after others are
+        for (int id = 0; id < size; id++) {
+            if (maximal && out.get(id) && !containsUpClause(in, id)) {
+                out.clear(id);
+                in.set(id);
+            } else if (!maximal && in.get(id) && !emptiesDownClause(in, id)) {
+                in.clear(id);
+                out.set(id);
+            }
+        }
+        AxiomBitSet.Builder seed = new AxiomBitSet.Builder();
+        for (int id = in.nextSetBit(0); id >= 0; id = in.nextSetBit(id + 1))
+            seed.add(id);
+        return seed.build();
+    }
+
+    /**
+     * Checks if adding an axiom to a subset makes it contain an element of
+     * the kernel set.
+     */
+    private boolean containsUpClause(BitSet in, int id) {
+        for (AxiomBitSet clause : upClauses) {
+            if (!clause.contains(id))
+                continue;
+            boolean contained = true;
+            for (int other = clause.nextSetBit(0); other >= 0 && contained; other = clause.nextSetBit(other + 1))
+                contained = other == id || in.get(other);
+            if (contained)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if removing an axiom from a subset makes it contained in an
+     * element of the remainder set.
+     */
+    private boolean emptiesDownClause(BitSet in, int id) {
+        for (AxiomBitSet clause : downClauses) {
+            if (!clause.contains(id))
+                continue;
+            boolean empty = true;
+            for (int other = clause.nextSetBit(0); other >= 0 && empty; other = clause.nextSetBit(other + 1))
+                empty = other == id || !in.get(other);
+            if (empty)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Extends a partial assignment to one that satisfies every clause, if
+     * possible.
+     *
+     * @param in
+     *            the axioms assigned in, changed by the search
+     * @param out
+     *            the axioms assigned out, changed by the search
+     * @return {@code true} if every clause is satisfied
+     */
+    private boolean solve(BitSet in, BitSet out) {
+        if (!propagate(in, out))
+            return false;
+        // the open clause with fewest unassigned axioms
+        AxiomBitSet branch = null;
+        boolean branchUp = false;
+        int fewest = Integer.MAX_VALUE;
+        for (int k = 0; k < 2; k++) {
+            boolean up = k == 0;
+            for (AxiomBitSet clause : up ? upClauses : downClauses) {
+                if (intersects(clause, up ? out : in))
+                    continue;
+                int unassigned = countUnassigned(clause, in, out);
+                if (unassigned < fewest) {
+                    fewest = unassigned;
+                    branch = clause;
+                    branchUp = up;
+                }
+            }
+        }
+        if (branch == null)
+            return true;
+        // the i-th branch satisfies the clause with the i-th axiom and not
+        // with the previous ones, so no assignment is searched twice
+        BitSet tried = new BitSet(size);
+        for (int id = branch.nextSetBit(0); id >= 0; id = branch.nextSetBit(id + 1)) {
+            if (in.get(id) || out.get(id))
+                continue;
+            BitSet nextIn = (BitSet) in.clone();
+            BitSet nextOut = (BitSet) out.clone();
+            (branchUp ? nextOut : nextIn).set(id);
+            (branchUp ? nextIn : nextOut).or(tried);
+            if (solve(nextIn, nextOut)) {
+                in.clear();
+                in.or(nextIn);
+                out.clear();
+                out.or(nextOut);
+                return true;
+            }
+            tried.set(id);
+        }
+        return false;
+    }
+
+    /**
+     * Assigns the axioms forced by the clauses with a single unassigned
+     * axiom, until none is left.
+     *
+     * @param in
+     *            the axioms assigned in
+     * @param out
+     *            the axioms assigned out
+     * @return {@code false} if a clause cannot be satisfied
+     */
+    private boolean propagate(BitSet in, BitSet out) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int k = 0; k < 2; k++) {
+                boolean up = k == 0;
+                BitSet satisfying = up ? out : in;
+                for (AxiomBitSet clause : up ? upClauses : downClauses) {
+                    if (intersects(clause, satisfying))
+                        continue;
+                    int unassigned = countUnassigned(clause, in, out);
+                    if (unassigned == 0)
+                        return false;
+                    if (unassigned == 1) {
+                        for (int id = clause.nextSetBit(0); id >= 0; id = clause.nextSetBit(id + 1)) {
+                            if (!in.get(id) && !out.get(id))
+                                satisfying.set(id);
+                        }
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(AxiomBitSet clause, BitSet set) {
+        for (int id = clause.nextSetBit(0); id >= 0; id = clause.nextSetBit(id + 1)) {
+            if (set.get(id))
+                return true;
+        }
+        return false;
+    }
+
+    private static int countUnassigned(AxiomBitSet clause, BitSet in, BitSet out) {
+        int unassigned = 0;
+        for (int id = clause.nextSetBit(0); id >= 0; id = clause.nextSetBit(id + 1)) {
+            if (!in.get(id) && !out.get(id))
+                unassigned++;
+        }
+        return unassigned;
+    }
+}
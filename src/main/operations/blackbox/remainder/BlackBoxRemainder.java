@@ -5,6 +5,7 @@ import java.util.Set;
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.blackbox.AbstractBlackBoxExpansionStrategy;
 import main.operations.blackbox.AbstractBlackBoxShrinkingStrategy;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 
@@ -31,12 +32,17 @@ public class BlackBoxRemainder extends AbstractBlackBox {
     @Override
     public Set<OWLAxiom> blackBox(Set<OWLAxiom> ontology, OWLAxiom entailment,
             Set<OWLAxiom> initialSet) throws OWLOntologyCreationException {
-        Set<OWLAxiom> contractionResult = this.shrinkingStrategy.shrink(ontology,
-                entailment, initialSet);
-        Set<OWLAxiom> remains = ((AbstractBlackBoxRemainderShrinkingStrategy) this.shrinkingStrategy)
-                .getRemains();
-        ((AbstractBlackBoxRemainderExpansionStrategy) this.expansionStrategy)
-                .setRemains(remains);
-        return this.expansionStrategy.expand(contractionResult, entailment);
+        long start = System.nanoTime();
+        try {
+            Set<OWLAxiom> contractionResult = this.shrinkingStrategy.shrink(ontology,
+                    entailment, initialSet);
+            Set<OWLAxiom> remains = ((AbstractBlackBoxRemainderShrinkingStrategy) this.shrinkingStrategy)
+                    .getRemains();
+            ((AbstractBlackBoxRemainderExpansionStrategy) this.expansionStrategy)
+                    .setRemains(remains);
+            return this.expansionStrategy.expand(contractionResult, entailment);
+        } finally {
+            Metrics.getDefault().recordTime(getClass(), "blackBox", start);
+        }
     }
 }
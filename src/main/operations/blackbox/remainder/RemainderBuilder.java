@@ -1,16 +1,37 @@
 package main.operations.blackbox.remainder;
 
+import main.operations.auxiliars.LocalityModuleExtractor;
+import main.operations.auxiliars.ResultStore;
 import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.MarcoEnumerator;
+import main.operations.blackbox.kernel.BlackBoxKernel;
+import main.operations.blackbox.kernel.expansionstrategies.ClassicalBlackBoxKernelExpansionStrategy;
+import main.operations.blackbox.kernel.full.AbstractReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.ClassicalReiterKernelBuilder;
+import main.operations.blackbox.kernel.full.ParallelReiterKernelBuilder;
+import main.operations.blackbox.kernel.shrinkingstrategies.ClassicalBlackBoxKernelShrinkingStrategy;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import main.operations.blackbox.remainder.expansionstrategies.ClassicalBlackBoxRemainderExpansionStrategy;
+import main.operations.blackbox.remainder.full.AbstractResinaRemainderBuilder;
 import main.operations.blackbox.remainder.full.ClassicalResinaRemainderBuilder;
+import main.operations.blackbox.remainder.full.KernelDualityRemainderBuilder;
+import main.operations.blackbox.remainder.full.MarcoRemainderBuilder;
+import main.operations.blackbox.remainder.full.ParallelResinaRemainderBuilder;
 import main.operations.blackbox.remainder.shrinkingstrategies.TrivialBlackBoxRemainderShrinkingStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Provides the computation of the remainder set.
@@ -43,6 +64,54 @@ public class RemainderBuilder {
      */
     private int maxRemainderElements = Integer.MAX_VALUE;
 
+    /**
+     * The cache of results of the entailment checks, shared by every
+     * computation of this builder.
+     */
+    private EntailmentCache entailmentCache = new EntailmentCache();
+
+    /**
+     * Whether the results of previous checks are used to deduce the results
+     * of new ones by monotonicity.
+     */
+    private boolean useMonotonicityIndex = true;
+
+    /**
+     * The index used in the last computation.
+     */
+    private MonotonicityIndex monotonicityIndex;
+
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * The number of threads that expand the candidates.
+     */
+    private int threads = 1;
+
+    /**
+     * Whether the remainder set is computed from the kernel set.
+     */
+    private boolean useKernelDuality = false;
+
+    /**
+     * Whether the remainder set is computed by the combined enumeration of
+     * kernels and remainders.
+     */
+    private boolean useMarco = false;
+
+    private ReasoningBudget reasoningBudget;
+
+    private boolean partial = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
     /**
      * Instantiates the class.
      *
@@ -61,6 +130,13 @@ public class RemainderBuilder {
      * The result may not be the full remainder set if the limit of the queue
      * capacity or the limit of the computed remainder set size is too slow.
      *
+     * If the module extraction is enabled, the remainder set is computed for
+     * the locality-based module of the formula only, and the axioms outside
+     * the module, which belong to every element of the remainder set, are
+     * added back afterwards. If a result store is set, a result stored for
+     * the same belief set, formula and configuration is returned without
+     * search.
+     *
      * @param kb
      *            the belief set
      * @param entailment
@@ -75,13 +151,143 @@ public class RemainderBuilder {
      */
     public Set<Set<OWLAxiom>> remainderSet(Set<OWLAxiom> kb, OWLAxiom entailment)
             throws OWLOntologyChangeException, OWLOntologyCreationException {
-        AbstractBlackBox blackbox = new BlackBoxRemainder(
-                new ClassicalBlackBoxRemainderExpansionStrategy(manager, reasonerFactory),
+        Set<OWLAxiom> input = kb;
+        String configuration = getConfiguration();
+        if (resultStore != null) {
+            Set<Set<OWLAxiom>> stored = resultStore.get(input, entailment, configuration);
+            if (stored != null) {
+                partial = false;
+                return stored;
+            }
+        }
+        Set<OWLAxiom> outside = Collections.emptySet();
+        if (useModuleExtraction) {
+            Set<OWLAxiom> module = LocalityModuleExtractor.extractModule(kb, entailment);
+            outside = LocalityModuleExtractor.outsideModule(kb, module);
+            kb = module;
+        }
+        AbstractResinaRemainderBuilder rb = createResinaRemainderBuilder();
+        ReasonerPool reasonerPool = new ReasonerPool(reasonerFactory);
+        rb.setReasonerPool(reasonerPool);
+        rb.setEntailmentCache(entailmentCache);
+        monotonicityIndex = useMonotonicityIndex ? new MonotonicityIndex() : null;
+        rb.setMonotonicityIndex(monotonicityIndex);
+        rb.setReasoningBudget(reasoningBudget);
+        partial = false;
+        try {
+            Set<Set<OWLAxiom>> remainderSet;
+            try {
+                remainderSet = rb.remainderSet(kb, entailment);
+            } catch (TimeOutException e) {
+                partial = true;
+                remainderSet = rb.getFoundRemainders();
+            }
+            if (!outside.isEmpty()) {
+                Set<Set<OWLAxiom>> merged = new HashSet<>();
+                for (Set<OWLAxiom> remainder : remainderSet) {
+                    Set<OWLAxiom> full = new HashSet<>(remainder);
+                    full.addAll(outside);
+                    merged.add(full);
+                }
+                remainderSet = merged;
+            }
+            if (resultStore != null && !partial)
+                resultStore.put(input, entailment, configuration, remainderSet);
+            return remainderSet;
+        } finally {
+            reasonerPool.dispose();
+        }
+    }
+
+    /**
+     * Creates the BlackBox algorithm that finds each element of the
+     * remainder set.
+     *
+     * @return the BlackBox algorithm
+     */
+    private AbstractBlackBox createBlackBox() {
+        return new BlackBoxRemainder(new ClassicalBlackBoxRemainderExpansionStrategy(manager, reasonerFactory),
                 new TrivialBlackBoxRemainderShrinkingStrategy(manager, reasonerFactory));
-        ClassicalResinaRemainderBuilder rb = new ClassicalResinaRemainderBuilder(blackbox, manager, reasonerFactory);
-        rb.setMaxQueueSize(maxQueueSize);
-        rb.setMaxRemainderElements(maxRemainderElements);
-        return rb.remainderSet(kb, entailment);
+    }
+
+    /**
+     * Creates the algorithm that computes the remainder set, as configured.
+     *
+     * @return the algorithm
+     */
+    private AbstractResinaRemainderBuilder createResinaRemainderBuilder() {
+        if (useMarco) {
+            MarcoRemainderBuilder marco = new MarcoRemainderBuilder(new MarcoEnumerator(createKernelBlackBox(),
+                    createBlackBox(), manager, reasonerFactory), manager, reasonerFactory);
+            marco.setMaxRemainderElements(maxRemainderElements);
+            return marco;
+        }
+        if (useKernelDuality) {
+            KernelDualityRemainderBuilder duality = new KernelDualityRemainderBuilder(createKernelBuilder(), manager,
+                    reasonerFactory);
+            duality.setMaxRemainderElements(maxRemainderElements);
+            return duality;
+        }
+        if (threads > 1) {
+            ParallelResinaRemainderBuilder parallel = new ParallelResinaRemainderBuilder(
+                    new Supplier<AbstractBlackBox>() {
+                        @Override
+                        public AbstractBlackBox get() {
+                            return createBlackBox();
+                        }
+                    }, manager, reasonerFactory);
+            parallel.setMaxQueueSize(maxQueueSize);
+            parallel.setMaxRemainderElements(maxRemainderElements);
+            parallel.setParallelism(threads);
+            return parallel;
+        }
+        ClassicalResinaRemainderBuilder classical = new ClassicalResinaRemainderBuilder(createBlackBox(), manager,
+                reasonerFactory);
+        classical.setMaxQueueSize(maxQueueSize);
+        classical.setMaxRemainderElements(maxRemainderElements);
+        return classical;
+    }
+
+    /**
+     * Creates the BlackBox algorithm that finds each element of the kernel
+     * set.
+     *
+     * @return the BlackBox algorithm
+     */
+    private AbstractBlackBox createKernelBlackBox() {
+        return new BlackBoxKernel(new ClassicalBlackBoxKernelExpansionStrategy(manager, reasonerFactory),
+                new ClassicalBlackBoxKernelShrinkingStrategy(manager, reasonerFactory));
+    }
+
+    /**
+     * Creates the algorithm that computes the kernel set from which the
+     * remainder set is computed. The limits of the queue and of the number
+     * of elements do not apply to it, since the kernel set must be complete.
+     *
+     * @return the algorithm
+     */
+    private AbstractReiterKernelBuilder createKernelBuilder() {
+        AbstractBlackBox blackBox = createKernelBlackBox();
+        if (threads > 1) {
+            ParallelReiterKernelBuilder parallel = new ParallelReiterKernelBuilder(blackBox, manager, reasonerFactory);
+            parallel.setParallelism(threads);
+            return parallel;
+        }
+        return new ClassicalReiterKernelBuilder(blackBox, manager, reasonerFactory);
+    }
+
+    /**
+     * Describes the options that may change the computed remainder set,
+     * which identify its results in the result store.
+     *
+     * @return the description of the configuration
+     */
+    private String getConfiguration() {
+        String reasoner = reasonerFactory.getReasonerName();
+        return String.format("remainder reasoner=%s maxQueueSize=%d maxRemainderElements=%d module=%b parallel=%b"
+                + " kernelDuality=%b marco=%b",
+                reasoner != null ? reasoner : reasonerFactory.getClass().getName(), maxQueueSize,
+                maxRemainderElements, useModuleExtraction, threads > 1, useKernelDuality, useMarco);
     }
 
     /**
@@ -125,4 +331,165 @@ public class RemainderBuilder {
     public void setMaxRemainderElements(int maxRemainderElements) {
         this.maxRemainderElements = maxRemainderElements;
     }
+
+    /**
+     * Gets the cache of results of the entailment checks.
+     *
+     * @return the entailment cache, or {@code null} if the results are not
+     *         cached
+     */
+    public EntailmentCache getEntailmentCache() {
+        return entailmentCache;
+    }
+
+    /**
+     * Sets the cache of results of the entailment checks.
+     *
+     * @param entailmentCache
+     *            the entailment cache, or {@code null} to disable caching
+     */
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        this.entailmentCache = entailmentCache;
+    }
+
+    /**
+     * Sets whether the results of previous checks are used to deduce the
+     * results of new ones by monotonicity.
+     *
+     * @param useMonotonicityIndex
+     *            {@code true} to use the monotonicity index
+     */
+    public void setUseMonotonicityIndex(boolean useMonotonicityIndex) {
+        this.useMonotonicityIndex = useMonotonicityIndex;
+    }
+
+    /**
+     * Gets the monotonicity index used in the last computation.
+     *
+     * @return the monotonicity index, or {@code null} if it was not used
+     */
+    public MonotonicityIndex getMonotonicityIndex() {
+        return monotonicityIndex;
+    }
+
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets the number of threads that expand the candidates.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that expand the candidates. With more than
+     * one, the candidates are expanded in parallel (see
+     * {@link ParallelResinaRemainderBuilder}).
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets whether the remainder set is computed from the kernel set.
+     *
+     * @return {@code true} if the kernel duality is used
+     */
+    public boolean getUseKernelDuality() {
+        return useKernelDuality;
+    }
+
+    /**
+     * Sets whether the remainder set is computed from the kernel set, as
+     * the complements of its minimal hitting sets (see
+     * {@link KernelDualityRemainderBuilder}), instead of by the Resina
+     * algorithm. The limit of the queue does not apply then.
+     *
+     * @param useKernelDuality
+     *            {@code true} to use the kernel duality
+     */
+    public void setUseKernelDuality(boolean useKernelDuality) {
+        this.useKernelDuality = useKernelDuality;
+    }
+
+    /**
+     * Gets whether the remainder set is computed by the combined enumeration
+     * of kernels and remainders.
+     *
+     * @return {@code true} if the combined enumeration is used
+     */
+    public boolean getUseMarco() {
+        return useMarco;
+    }
+
+    /**
+     * Sets whether the remainder set is computed by the combined enumeration
+     * of kernels and remainders (see {@link MarcoRemainderBuilder}), which
+     * takes precedence over the kernel duality. The limit of the queue and
+     * the number of threads do not apply then.
+     *
+     * @param useMarco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setUseMarco(boolean useMarco) {
+        this.useMarco = useMarco;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations, which is
+     * checked before the search. Complete results are stored; the ones
+     * stopped by the reasoning budget are not.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    public ReasoningBudget getReasoningBudget() {
+        return reasoningBudget;
+    }
+
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        this.reasoningBudget = reasoningBudget;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
 }
@@ -1,10 +1,10 @@
 package main.operations.blackbox.remainder.expansionstrategies;
 
+import java.util.HashSet;
 import java.util.Set;
 
 import main.operations.blackbox.remainder.AbstractBlackBoxRemainderExpansionStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -30,13 +30,13 @@ public class ClassicalBlackBoxRemainderExpansionStrategy extends AbstractBlackBo
 
     @Override
     public Set<OWLAxiom> expand(Set<OWLAxiom> kb, OWLAxiom entailment) throws OWLOntologyCreationException {
-        OWLOntology ontology = manager.createOntology(kb);
+        Set<OWLAxiom> remainder = new HashSet<>(kb);
         for (OWLAxiom axiom : remains) {
-            manager.addAxiom(ontology, axiom);
-            if (isEntailed(ontology, entailment)) {
-                manager.removeAxiom(ontology, axiom);
+            remainder.add(axiom);
+            if (isEntailed(remainder, entailment)) {
+                remainder.remove(axiom);
             }
         }
-        return ontology.getAxioms();
+        return remainder;
     }
 }
@@ -1,9 +1,14 @@
 package main.operations.blackbox.remainder.full;
 
+import java.util.HashSet;
 import java.util.Set;
 
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.blackbox.OperatorStrategy;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -17,7 +22,8 @@ import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 public abstract class AbstractResinaRemainderBuilder extends OperatorStrategy {
 
     /**
-     * An implementation of the BlackBox algorithm.
+     * An implementation of the BlackBox algorithm, or {@code null} if the
+     * algorithm does not use it.
      */
     protected AbstractBlackBox blackBox;
 
@@ -26,6 +32,12 @@ public abstract class AbstractResinaRemainderBuilder extends OperatorStrategy {
      */
     protected OWLReasonerFactory reasonerFactory;
 
+    /**
+     * The elements of the remainder set found so far, which are the result
+     * of a computation stopped by the reasoning budget.
+     */
+    protected Set<Set<OWLAxiom>> found = new HashSet<>();
+
     /**
      * Computes the full remainder set of an ontology in relation to a formula.
      *
@@ -45,7 +57,8 @@ public abstract class AbstractResinaRemainderBuilder extends OperatorStrategy {
      * Instantiates the class.
      *
      * @param blackBox
-     *            an implementation of the blackbox algorithm
+     *            an implementation of the blackbox algorithm, or {@code null}
+     *            if the algorithm does not use it
      * @param manager
      *            the ontology manager
      * @param reasonerFactory
@@ -57,4 +70,79 @@ public abstract class AbstractResinaRemainderBuilder extends OperatorStrategy {
         this.blackBox = blackBox;
         this.reasonerFactory = reasonerFactory;
     }
+
+    /**
+     * Records an element of the remainder set found, and tells the
+     * monotonicity index, if any, so that every subset of it is known not to
+     * entail the formula.
+     *
+     * @param remainder
+     *            the element of the remainder set
+     * @param entailment
+     *            the formula
+     */
+    protected void recordRemainder(Set<OWLAxiom> remainder, OWLAxiom entailment) {
+        found.add(remainder);
+        if (monotonicityIndex != null)
+            monotonicityIndex.record(remainder, entailment, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The pool is also shared with the strategies of the BlackBox algorithm.
+     */
+    @Override
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        super.setReasonerPool(reasonerPool);
+        if (blackBox != null)
+            blackBox.setReasonerPool(reasonerPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The cache is also shared with the strategies of the BlackBox algorithm.
+     */
+    @Override
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        super.setEntailmentCache(entailmentCache);
+        if (blackBox != null)
+            blackBox.setEntailmentCache(entailmentCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The index is also shared with the strategies of the BlackBox algorithm.
+     */
+    @Override
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        super.setMonotonicityIndex(monotonicityIndex);
+        if (blackBox != null)
+            blackBox.setMonotonicityIndex(monotonicityIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The budget is also shared with the strategies of the BlackBox algorithm.
+     */
+    @Override
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        super.setReasoningBudget(reasoningBudget);
+        if (blackBox != null)
+            blackBox.setReasoningBudget(reasoningBudget);
+    }
+
+    /**
+     * Gets the elements of the remainder set found so far. If the
+     * computation is stopped by the reasoning budget, they are its partial
+     * result.
+     *
+     * @return the elements found
+     */
+    public Set<Set<OWLAxiom>> getFoundRemainders() {
+        return found;
+    }
 }
@@ -0,0 +1,129 @@
+package main.operations.blackbox.remainder.full;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.SetTrie;
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+/**
+ * Indexes the candidates of a Resina search, i.e., the sets of axioms that
+ * the next element of the remainder set must contain, so that no candidate
+ * is handled twice and known candidates answer for the new ones.
+ *
+ * A candidate is kept as the bitset of its axioms, which is the same however
+ * its axioms were added, so the same set reached through different orders
+ * is visited only once. A candidate contained in an element of the remainder
+ * set already found does not imply the formula, and that element is a
+ * remainder containing it, so neither the reasoner nor the BlackBox
+ * algorithm is needed for it. A candidate containing another one that
+ * implies the formula implies it too.
+ *
+ * The class is thread-safe.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class CandidateIndex {
+
+    /**
+     * Gives the identifiers of the axioms of the candidates.
+     */
+    private final AxiomInterner interner;
+
+    /**
+     * The candidates visited so far.
+     */
+    private final Set<AxiomBitSet> visited = new HashSet<>();
+
+    /**
+     * The elements of the remainder set found so far, as bitsets.
+     */
+    private final List<AxiomBitSet> remainders = new ArrayList<>();
+
+    /**
+     * The same elements, as sets of axioms.
+     */
+    private final List<Set<OWLAxiom>> remainderAxioms = new ArrayList<>();
+
+    /**
+     * The candidates known to imply the formula.
+     */
+    private final SetTrie entailing = new SetTrie();
+
+    /**
+     * Instantiates the class.
+     *
+     * @param interner
+     *            gives the identifiers of the axioms of the candidates
+     */
+    public CandidateIndex(AxiomInterner interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Marks a candidate as visited.
+     *
+     * @param candidate
+     *            the candidate
+     * @return {@code true} if the candidate had not been visited yet
+     */
+    public synchronized boolean visit(AxiomBitSet candidate) {
+        return visited.add(candidate);
+    }
+
+    /**
+     * Finds an element of the remainder set already found that contains a
+     * candidate. The elements are looked up in the order they were added.
+     *
+     * @param candidate
+     *            the candidate
+     * @return the element, or {@code null} if there is none
+     */
+    public synchronized Set<OWLAxiom> findRemainder(AxiomBitSet candidate) {
+        for (int i = 0; i < remainders.size(); i++) {
+            if (remainders.get(i).containsAll(candidate))
+                return remainderAxioms.get(i);
+        }
+        return null;
+    }
+
+    /**
+     * Adds an element of the remainder set found.
+     *
+     * @param remainder
+     *            the element of the remainder set
+     */
+    public synchronized void addRemainder(Set<OWLAxiom> remainder) {
+        AxiomBitSet ids = interner.toBitSet(remainder);
+        if (!remainders.contains(ids)) {
+            remainders.add(ids);
+            remainderAxioms.add(remainder);
+        }
+    }
+
+    /**
+     * Checks if a candidate contains another one known to imply the formula.
+     *
+     * @param candidate
+     *            the candidate
+     * @return {@code true} if the candidate implies the formula by
+     *         monotonicity
+     */
+    public synchronized boolean isEntailing(AxiomBitSet candidate) {
+        return entailing.containsSubsetOf(candidate.toArray());
+    }
+
+    /**
+     * Adds a candidate that implies the formula.
+     *
+     * @param candidate
+     *            the candidate
+     */
+    public synchronized void addEntailing(AxiomBitSet candidate) {
+        entailing.add(candidate.toArray());
+    }
+}
@@ -9,13 +9,14 @@ import java.util.logging.Logger;
 
 import main.operations.blackbox.AbstractBlackBox;
 import main.operations.auxiliars.HumanReadableAxiomExpressionGenerator;
-import org.semanticweb.owlapi.apibinding.OWLManager;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.IncrementalReasoner;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 
 /**
@@ -61,21 +62,23 @@ public class ClassicalResinaRemainderBuilder extends AbstractResinaRemainderBuil
     public Set<Set<OWLAxiom>> remainderSet(Set<OWLAxiom> kb, OWLAxiom entailment)
             throws OWLOntologyCreationException, OWLOntologyChangeException {
         HashSet<Set<OWLAxiom>> remainderSet = new HashSet<>();
-        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
-        OWLReasoner reasoner = reasonerFactory
-                .createNonBufferingReasoner(manager.createOntology(kb));
         Set<OWLAxiom> rem, hn;
-        // create an empty queue
-        Queue<Set<OWLAxiom>> queue = new LinkedList<>();
+        // create an empty queue, whose sets are kept as the identifiers of
+        // their axioms, and the index of the sets already queued
+        AxiomInterner interner = new AxiomInterner();
+        CandidateIndex candidates = new CandidateIndex(interner);
+        Queue<AxiomBitSet> queue = new LinkedList<>();
         // if the formula is not entailed, then there is nothing to do
-        if (!reasoner.isEntailed(entailment)) {
+        if (!isEntailed(kb, entailment)) {
             Set<Set<OWLAxiom>> unit = new HashSet<Set<OWLAxiom>>();
             unit.add(kb);
             return unit;
         }
         // get one element of the remainder set
         rem = this.blackBox.blackBox(kb, entailment);
+        recordRemainder(rem, entailment);
         remainderSet.add(rem);
+        candidates.addRemainder(rem);
         if (Logger.getLogger("SRW").isLoggable(Level.FINER)) {
             Logger.getLogger("SRW").log(Level.FINER,
                     "\n---------- REMAINDER ELEMENT: \n"
@@ -88,50 +91,71 @@ public class ClassicalResinaRemainderBuilder extends AbstractResinaRemainderBuil
                 break;
             if (rem.contains(axiom))
                 continue;
-            Set<OWLAxiom> set = new HashSet<>();
-            set.add(axiom);
-            queue.add(set);
+            AxiomBitSet next = AxiomBitSet.EMPTY.with(interner.intern(axiom));
+            if (candidates.visit(next))
+                queue.add(next);
         }
-        // prepare reasoner and ontology to be used in the main loop
-        OWLOntology ont = manager.createOntology();
         if (remainderSet.size() >= maxRemainderElements)
             return remainderSet;
-        // while the queue is not empty...
-        while (!queue.isEmpty()) {
-            // hn <- queue.pop()
-            hn = queue.remove();
-            // check if hn entails the formula
-            manager.addAxioms(ont, hn);
-            reasoner = reasonerFactory.createReasoner(ont); // TODO: avoid recreation of
-                                                            // the reasoner
-            boolean entails = reasoner.isEntailed(entailment);
-            manager.removeAxioms(ont, hn);
-            if (entails)
-                continue;
-            // if hn does not entail the formula...
-            // find a remainder containing all the elements of hn
-            rem = this.blackBox.blackBox(kb, entailment, hn);
-            // add it to the remainder set
-            remainderSet.add(rem);
-            if (Logger.getLogger("SRW").isLoggable(Level.FINER)) {
-                Logger.getLogger("SRW").log(Level.FINER,
-                        "\n---------- REMAINDER ELEMENT: \n"
-                                + HumanReadableAxiomExpressionGenerator
-                                        .generateExpressionForSet(rem));
-            }
-            if (remainderSet.size() >= maxRemainderElements)
-                break;
-            // for each axiom s in kb \ rem, add hn U {s} to the queue
-            for (OWLAxiom s : kb) {
-                if (queue.size() >= maxQueueSize)
-                    break;
-                if (rem.contains(s))
-                    continue;
-                Set<OWLAxiom> set = new HashSet<>();
-                set.addAll(hn);
-                set.add(s);
-                queue.add(set);
+        // prepare the reasoner to be used in the main loop: its ontology is
+        // changed from one hn to the next, which share most of their axioms
+        IncrementalReasoner reasoner = new IncrementalReasoner(reasonerFactory);
+        try {
+            // while the queue is not empty...
+            while (!queue.isEmpty()) {
+                checkCancelled();
+                Metrics.getDefault().record(getClass(), "queue depth", queue.size());
+                // hn <- queue.pop()
+                AxiomBitSet path = queue.remove();
+                // an element already found that contains hn is a remainder
+                // containing it, so hn needs no reasoning
+                rem = candidates.findRemainder(path);
+                if (rem != null) {
+                    Metrics.getDefault().increment(getClass(), "remainders reused");
+                } else {
+                    // a superset of a set that entails the formula entails it too
+                    if (candidates.isEntailing(path)) {
+                        Metrics.getDefault().increment(getClass(), "candidates subsumed");
+                        continue;
+                    }
+                    hn = interner.toAxioms(path);
+                    // check if hn entails the formula on the reasoner of the loop
+                    boolean entails = isEntailed(hn, entailment, reasoner);
+                    if (entails) {
+                        candidates.addEntailing(path);
+                        continue;
+                    }
+                    // if hn does not entail the formula...
+                    // find a remainder containing all the elements of hn,
+                    // which is a new one, since no element found contains hn
+                    rem = this.blackBox.blackBox(kb, entailment, hn);
+                    recordRemainder(rem, entailment);
+                    // add it to the remainder set
+                    remainderSet.add(rem);
+                    candidates.addRemainder(rem);
+                    if (Logger.getLogger("SRW").isLoggable(Level.FINER)) {
+                        Logger.getLogger("SRW").log(Level.FINER,
+                                "\n---------- REMAINDER ELEMENT: \n"
+                                        + HumanReadableAxiomExpressionGenerator
+                                                .generateExpressionForSet(rem));
+                    }
+                    if (remainderSet.size() >= maxRemainderElements)
+                        break;
+                }
+                // for each axiom s in kb \ rem, add hn U {s} to the queue
+                for (OWLAxiom s : kb) {
+                    if (queue.size() >= maxQueueSize)
+                        break;
+                    if (rem.contains(s))
+                        continue;
+                    // the same set reached in another order is queued once
+                    AxiomBitSet next = path.with(interner.intern(s));
+                    if (candidates.visit(next))
+                        queue.add(next);
+                }
             }
+        } finally {
+            reasoner.dispose();
         }
         // return the computed remainder set
         return remainderSet;
@@ -0,0 +1,221 @@
+package main.operations.blackbox.remainder.full;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.operations.blackbox.kernel.full.AbstractReiterKernelBuilder;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * Computes the full remainder set from the kernel set: the elements of the
+ * remainder set are exactly the complements, in the belief set, of the
+ * minimal hitting sets of the kernel set.
+ *
+ * The kernel set is computed first, and it is the only step that calls the
+ * reasoner. The minimal hitting sets are then enumerated by Berge's
+ * algorithm, which adds one element of the kernel set at a time to the
+ * minimal hitting sets of the previous ones, on bitsets of the axioms of the
+ * kernel set only. When the elements of the kernel set are small and few,
+ * which is usual, this needs far fewer entailment checks than finding each
+ * element of the remainder set with the BlackBox algorithm.
+ *
+ * The kernel set must be complete, so the kernel builder should not limit
+ * its queue nor its number of elements.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class KernelDualityRemainderBuilder extends AbstractResinaRemainderBuilder {
+
+    /**
+     * The maximum number of elements of the remainder set that will be computed.
+     */
+    private int maxRemainderElements = Integer.MAX_VALUE;
+
+    /**
+     * The algorithm that computes the kernel set.
+     */
+    private final AbstractReiterKernelBuilder kernelBuilder;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param kernelBuilder
+     *            the algorithm that computes the kernel set
+     * @param manager
+     *            the ontology manager
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     */
+    public KernelDualityRemainderBuilder(AbstractReiterKernelBuilder kernelBuilder, OWLOntologyManager manager,
+            OWLReasonerFactory reasonerFactory) {
+        super(null, manager, reasonerFactory);
+        this.kernelBuilder = kernelBuilder;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The result may not be the full remainder set if the limit of the
+     * computed remainder set size is too slow.
+     */
+    @Override
+    public Set<Set<OWLAxiom>> remainderSet(Set<OWLAxiom> kb, OWLAxiom entailment)
+            throws OWLOntologyCreationException {
+        Set<Set<OWLAxiom>> kernelSet = kernelBuilder.kernelSet(kb, entailment);
+        Metrics.getDefault().record(getClass(), "kernels", kernelSet.size());
+        // only the axioms of the kernel set are given identifiers, so the
+        // bitsets are as small as their union
+        AxiomInterner interner = new AxiomInterner();
+        List<AxiomBitSet> kernels = new ArrayList<>();
+        for (Set<OWLAxiom> kernel : kernelSet)
+            kernels.add(interner.toBitSet(kernel));
+        Set<Set<OWLAxiom>> remainderSet = new HashSet<>();
+        for (AxiomBitSet hittingSet : minimalHittingSets(kernels)) {
+            if (remainderSet.size() >= maxRemainderElements)
+                break;
+            Set<OWLAxiom> remainder = new HashSet<>(kb);
+            interner.removeFrom(remainder, hittingSet);
+            recordRemainder(remainder, entailment);
+            remainderSet.add(remainder);
+        }
+        return remainderSet;
+    }
+
+    /**
+     * Enumerates the minimal hitting sets of a collection of sets by Berge's
+     * algorithm. After each set is added, a hitting set of the previous ones
+     * that also hits it is still minimal; the others are extended by each
+     * element of the new set, and an extension is kept only if it contains
+     * no hitting set kept before it, in non-decreasing order of size.
+     *
+     * @param sets
+     *            the sets to be hit
+     * @return the minimal hitting sets
+     */
+    private List<AxiomBitSet> minimalHittingSets(List<AxiomBitSet> sets) {
+        Comparator<AxiomBitSet> bySize = new Comparator<AxiomBitSet>() {
+            @Override
+            public int compare(AxiomBitSet a, AxiomBitSet b) {
+                return Integer.compare(a.size(), b.size());
+            }
+        };
+        // the small sets first keep the intermediate results small
+        List<AxiomBitSet> sorted = new ArrayList<>(sets);
+        Collections.sort(sorted, bySize);
+        List<AxiomBitSet> hittingSets = new ArrayList<>();
+        hittingSets.add(AxiomBitSet.EMPTY);
+        for (AxiomBitSet set : sorted) {
+            checkCancelled();
+            List<AxiomBitSet> next = new ArrayList<>();
+            List<AxiomBitSet> extensions = new ArrayList<>();
+            for (AxiomBitSet hittingSet : hittingSets) {
+                if (hittingSet.intersects(set)) {
+                    next.add(hittingSet);
+                    continue;
+                }
+                for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1))
+                    extensions.add(hittingSet.with(id));
+            }
+            Collections.sort(extensions, bySize);
+            for (AxiomBitSet extension : extensions) {
+                // a kept set contained in the extension is either the same
+                // set or a smaller hitting set
+                boolean minimal = true;
+                for (AxiomBitSet kept : next) {
+                    if (extension.containsAll(kept)) {
+                        minimal = false;
+                        break;
+                    }
+                }
+                if (minimal)
+                    next.add(extension);
+            }
+            hittingSets = next;
+            Metrics.getDefault().record(getClass(), "minimal hitting sets", hittingSets.size());
+        }
+        return hittingSets;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The pool is also shared with the algorithm that computes the kernel
+     * set.
+     */
+    @Override
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        super.setReasonerPool(reasonerPool);
+        kernelBuilder.setReasonerPool(reasonerPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The cache is also shared with the algorithm that computes the kernel
+     * set.
+     */
+    @Override
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        super.setEntailmentCache(entailmentCache);
+        kernelBuilder.setEntailmentCache(entailmentCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The index is also shared with the algorithm that computes the kernel
+     * set.
+     */
+    @Override
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        super.setMonotonicityIndex(monotonicityIndex);
+        kernelBuilder.setMonotonicityIndex(monotonicityIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The budget is also shared with the algorithm that computes the kernel
+     * set.
+     */
+    @Override
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        super.setReasoningBudget(reasoningBudget);
+        kernelBuilder.setReasoningBudget(reasoningBudget);
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed remainder set.
+     *
+     * @return the maximum size of the computed remainder set
+     */
+    public int getMaxRemainderElements() {
+        return maxRemainderElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed remainder set.
+     *
+     * @param maxRemainderElements
+     *            the maximum size of the computed remainder set
+     */
+    public void setMaxRemainderElements(int maxRemainderElements) {
+        this.maxRemainderElements = maxRemainderElements;
+    }
+}
@@ -0,0 +1,148 @@
+package main.operations.blackbox.remainder.full;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import main.operations.blackbox.MarcoEnumerator;
+import main.operations.blackbox.reasoner.EntailmentCache;
+import main.operations.blackbox.reasoner.MonotonicityIndex;
+import main.operations.blackbox.reasoner.ReasonerPool;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * Computes the full remainder set by the combined enumeration of kernels and
+ * remainders (see {@link MarcoEnumerator}), which finds the elements of the
+ * kernel set as well.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class MarcoRemainderBuilder extends AbstractResinaRemainderBuilder {
+
+    /**
+     * The maximum number of elements of the remainder set that will be computed.
+     */
+    private int maxRemainderElements = Integer.MAX_VALUE;
+
+    /**
+     * The combined enumeration.
+     */
+    private final MarcoEnumerator enumerator;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param enumerator
+     *            the combined enumeration of kernels and remainders
+     * @param manager
+     *            the ontology manager
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     */
+    public MarcoRemainderBuilder(MarcoEnumerator enumerator, OWLOntologyManager manager,
+            OWLReasonerFactory reasonerFactory) {
+        super(null, manager, reasonerFactory);
+        this.enumerator = enumerator;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The result may not be the full remainder set if the limit of the
+     * computed remainder set size is too slow.
+     */
+    @Override
+    public Set<Set<OWLAxiom>> remainderSet(Set<OWLAxiom> kb, final OWLAxiom entailment)
+            throws OWLOntologyCreationException {
+        // minimal seeds find the elements of the remainder set first
+        enumerator.setMaximalSeeds(false);
+        enumerator.setMaxRemainderElements(maxRemainderElements);
+        enumerator.setRemainderConsumer(new Consumer<Set<OWLAxiom>>() {
+            @Override
+            public void accept(Set<OWLAxiom> remainder) {
+                recordRemainder(remainder, entailment);
+            }
+        });
+        enumerator.enumerate(kb, entailment);
+        return new HashSet<>(enumerator.getRemainders());
+    }
+
+    /**
+     * Gets the combined enumeration, whose elements of the kernel set are
+     * found by the same search.
+     *
+     * @return the combined enumeration
+     */
+    public MarcoEnumerator getEnumerator() {
+        return enumerator;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The pool is also shared with the combined enumeration.
+     */
+    @Override
+    public void setReasonerPool(ReasonerPool reasonerPool) {
+        super.setReasonerPool(reasonerPool);
+        enumerator.setReasonerPool(reasonerPool);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The cache is also shared with the combined enumeration.
+     */
+    @Override
+    public void setEntailmentCache(EntailmentCache entailmentCache) {
+        super.setEntailmentCache(entailmentCache);
+        enumerator.setEntailmentCache(entailmentCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The index is also shared with the combined enumeration.
+     */
+    @Override
+    public void setMonotonicityIndex(MonotonicityIndex monotonicityIndex) {
+        super.setMonotonicityIndex(monotonicityIndex);
+        enumerator.setMonotonicityIndex(monotonicityIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The budget is also shared with the combined enumeration.
+     */
+    @Override
+    public void setReasoningBudget(ReasoningBudget reasoningBudget) {
+        super.setReasoningBudget(reasoningBudget);
+        enumerator.setReasoningBudget(reasoningBudget);
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed remainder set.
+     *
+     * @return the maximum size of the computed remainder set
+     */
+    public int getMaxRemainderElements() {
+        return maxRemainderElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed remainder set.
+     *
+     * @param maxRemainderElements
+     *            the maximum size of the computed remainder set
+     */
+    public void setMaxRemainderElements(int maxRemainderElements) {
+        this.maxRemainderElements = maxRemainderElements;
+    }
+}
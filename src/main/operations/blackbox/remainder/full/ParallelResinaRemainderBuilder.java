@@ -0,0 +1,302 @@
+package main.operations.blackbox.remainder.full;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import main.operations.blackbox.AbstractBlackBox;
+import main.operations.blackbox.reasoner.AxiomBitSet;
+import main.operations.blackbox.reasoner.AxiomInterner;
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/**
+ * Implements the Resina algorithm for computing the full remainder set,
+ * expanding the candidates in parallel.
+ *
+ * Each candidate (the set of axioms a remainder must contain) is expanded by
+ * a task of a fork-join pool, whose workers keep their tasks in deques and
+ * steal from each other when idle. A task checks the candidate, finds a
+ * remainder containing it with the BlackBox algorithm, and forks a task for
+ * each extension of the candidate by an axiom left out of the remainder.
+ * Each worker has its own instance of the BlackBox algorithm, since its
+ * strategies keep state between calls, and borrows its own reasoner from the
+ * pool for each check. The remainder set is concurrent, and the candidates
+ * are indexed as by the sequential algorithm (see {@link CandidateIndex}).
+ *
+ * Without limits, the computed remainder set is the same as the sequential
+ * one. The maximum number of elements is never exceeded; which elements are
+ * computed up to it depends on the scheduling of the tasks.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class ParallelResinaRemainderBuilder extends AbstractResinaRemainderBuilder {
+
+    /**
+     * The maximum number of candidates waiting to be expanded.
+     */
+    private int maxQueueSize = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of elements of the remainder set that will be computed.
+     */
+    private int maxRemainderElements = Integer.MAX_VALUE;
+
+    /**
+     * The number of workers.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates the instances of the BlackBox algorithm used by the workers.
+     */
+    private final Supplier<AbstractBlackBox> blackBoxes;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param blackBoxes
+     *            creates a new instance of the BlackBox algorithm each time
+     *            it is called
+     * @param manager
+     *            the ontology manager
+     * @param reasonerFactory
+     *            a factory that constructs the reasoner
+     */
+    public ParallelResinaRemainderBuilder(Supplier<AbstractBlackBox> blackBoxes, OWLOntologyManager manager,
+            OWLReasonerFactory reasonerFactory) {
+        super(blackBoxes.get(), manager, reasonerFactory);
+        this.blackBoxes = blackBoxes;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The result may not be the full remainder set if the limit of the queue
+     * capacity or the limit of the computed remainder set size is too slow.
+     */
+    @Override
+    public Set<Set<OWLAxiom>> remainderSet(Set<OWLAxiom> kb, OWLAxiom entailment)
+            throws OWLOntologyCreationException {
+        // if the formula is not entailed, then there is nothing to do
+        if (!isEntailed(kb, entailment)) {
+            Set<Set<OWLAxiom>> unit = new HashSet<Set<OWLAxiom>>();
+            unit.add(kb);
+            return unit;
+        }
+        Search search = new Search(kb, entailment);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            search.candidates.visit(AxiomBitSet.EMPTY);
+            pool.invoke(search.expand(AxiomBitSet.EMPTY));
+        } catch (OWLRuntimeException e) {
+            // a task wraps the checked exceptions of the reasoning, and the
+            // pool may wrap the task's exception again
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OWLOntologyCreationException)
+                    throw (OWLOntologyCreationException) cause;
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+            // the workers still running must not change the result
+            synchronized (search.remainderSet) {
+                search.closed = true;
+            }
+        }
+        return new HashSet<>(search.remainderSet);
+    }
+
+    /**
+     * The state shared by the tasks of a computation.
+     */
+    private class Search {
+
+        private final Set<OWLAxiom> kb;
+
+        private final OWLAxiom entailment;
+
+        private final Set<Set<OWLAxiom>> remainderSet = Collections
+                .newSetFromMap(new ConcurrentHashMap<Set<OWLAxiom>, Boolean>());
+
+        private final AxiomInterner interner = new AxiomInterner();
+
+        private final CandidateIndex candidates = new CandidateIndex(interner);
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Whether the computation has ended, so no element can be added.
+         */
+        private boolean closed = false;
+
+        /**
+         * The instance of the BlackBox algorithm of each worker.
+         */
+        private final ThreadLocal<AbstractBlackBox> workerBlackBox = new ThreadLocal<AbstractBlackBox>() {
+            @Override
+            protected AbstractBlackBox initialValue() {
+                AbstractBlackBox worker = blackBoxes.get();
+                worker.setReasonerPool(reasonerPool);
+                worker.setEntailmentCache(entailmentCache);
+                worker.setMonotonicityIndex(monotonicityIndex);
+                worker.setReasoningBudget(reasoningBudget);
+                return worker;
+            }
+        };
+
+        private Search(Set<OWLAxiom> kb, OWLAxiom entailment) {
+            this.kb = kb;
+            this.entailment = entailment;
+        }
+
+        private RecursiveAction expand(final AxiomBitSet hn) {
+            pending.incrementAndGet();
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    List<RecursiveAction> children;
+                    try {
+                        children = label(hn);
+                    } catch (OWLOntologyCreationException e) {
+                        throw new OWLRuntimeException(e);
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                    invokeAll(children);
+                }
+            };
+        }
+
+        /**
+         * Finds an element of the remainder set that contains a candidate,
+         * and creates the tasks of the extensions of the candidate by each
+         * axiom left out of it.
+         */
+        private List<RecursiveAction> label(AxiomBitSet hn) throws OWLOntologyCreationException {
+            List<RecursiveAction> children = new ArrayList<>();
+            if (remainderSet.size() >= maxRemainderElements)
+                return children;
+            checkCancelled();
+            Metrics.getDefault().record(ParallelResinaRemainderBuilder.class, "pending candidates",
+                    pending.get());
+            // an element already found that contains the candidate is a
+            // remainder containing it, so the candidate needs no reasoning
+            Set<OWLAxiom> rem = candidates.findRemainder(hn);
+            if (rem == null) {
+                if (candidates.isEntailing(hn))
+                    return children;
+                Set<OWLAxiom> candidate = interner.toAxioms(hn);
+                // the root is the belief set itself, which is known to entail
+                // the formula, but the remainder found from it is still needed
+                if (!hn.isEmpty() && isEntailed(candidate, entailment)) {
+                    candidates.addEntailing(hn);
+                    return children;
+                }
+                rem = workerBlackBox.get().blackBox(kb, entailment, candidate);
+                if (!add(rem))
+                    return children;
+            }
+            for (OWLAxiom s : kb) {
+                if (pending.get() >= maxQueueSize)
+                    break;
+                if (rem.contains(s))
+                    continue;
+                AxiomBitSet next = hn.with(interner.intern(s));
+                if (candidates.visit(next))
+                    children.add(expand(next));
+            }
+            return children;
+        }
+
+        /**
+         * Adds an element to the remainder set, unless the limit is reached.
+         */
+        private boolean add(Set<OWLAxiom> remainder) {
+            synchronized (remainderSet) {
+                if (closed)
+                    return false;
+                if (remainderSet.contains(remainder))
+                    return true;
+                if (remainderSet.size() >= maxRemainderElements)
+                    return false;
+                remainderSet.add(remainder);
+                candidates.addRemainder(remainder);
+                recordRemainder(remainder, entailment);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sets the maximum number of candidates waiting to be expanded.
+     *
+     * @param maxQueueSize
+     *            the limit of the number of waiting candidates
+     *
+     */
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Gets the maximum number of candidates waiting to be expanded.
+     *
+     * @return the limit of the number of waiting candidates
+     *
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     *
+     * Gets the maximum number of elements in the computed remainder set.
+     *
+     * @return the maximum size of the computed remainder set
+     */
+    public int getMaxRemainderElements() {
+        return maxRemainderElements;
+    }
+
+    /**
+     *
+     * Sets the maximum number of elements in the computed remainder set.
+     *
+     * @param maxRemainderElements
+     *            the maximum size of the computed remainder set
+     */
+    public void setMaxRemainderElements(int maxRemainderElements) {
+        this.maxRemainderElements = maxRemainderElements;
+    }
+
+    /**
+     * Gets the number of workers.
+     *
+     * @return the number of workers
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of workers.
+     *
+     * @param parallelism
+     *            the number of workers
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
@@ -1,10 +1,10 @@
 package main.operations.blackbox.remainder.shrinkingstrategies;
 
+import java.util.HashSet;
 import java.util.Set;
 
 import main.operations.blackbox.remainder.AbstractBlackBoxRemainderShrinkingStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -34,14 +34,14 @@ public class ClassicalBlackBoxRemainderShrinkingStrategy
     @Override
     public Set<OWLAxiom> shrink(Set<OWLAxiom> kb, OWLAxiom entailment, Set<OWLAxiom> keep)
             throws OWLOntologyCreationException {
-        OWLOntology ontology = this.manager.createOntology(kb);
+        Set<OWLAxiom> shrunk = new HashSet<>(kb);
         for (OWLAxiom axiom : kb) {
             if (keep.contains(axiom))
                 continue;
-            manager.removeAxiom(ontology, axiom);
-            if (isEntailed(ontology, entailment))
+            shrunk.remove(axiom);
+            if (isEntailed(shrunk, entailment))
                 remains.add(axiom);
         }
-        return ontology.getAxioms();
+        return shrunk;
     }
 }
@@ -7,7 +7,6 @@ import java.util.Set;
 
 import main.operations.blackbox.remainder.AbstractBlackBoxRemainderShrinkingStrategy;
 import org.semanticweb.owlapi.model.OWLAxiom;
-import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -64,7 +63,7 @@ public class SlidingWindowBlackBoxRemainderShrinkingStrategy
         for (OWLAxiom x : keep)
             kbList.remove(x);
         int windowStart = 0;
-        OWLOntology ontology = manager.createOntology(kb);
+        Set<OWLAxiom> shrunk = new HashSet<>(kb);
         while (windowStart < kbList.size()) {
             int windowEnd = windowStart + windowSize;
             if (windowEnd > (kbList.size() - 1)) {
@@ -72,14 +71,14 @@ public class SlidingWindowBlackBoxRemainderShrinkingStrategy
             }
             HashSet<OWLAxiom> window = new HashSet<>(
                     kbList.subList(windowStart, windowEnd));
-            manager.removeAxioms(ontology, window);
+            shrunk.removeAll(window);
             remains.addAll(window);
-            if (!isEntailed(ontology, entailment)) {
+            if (!isEntailed(shrunk, entailment)) {
                 break;
             } else {
                 windowStart = windowStart + 1;
             }
         }
-        return ontology.getAxioms();
+        return shrunk;
     }
 }
@@ -2,18 +2,27 @@ package main.operations.contraction;
 
 import main.operations.auxiliars.AxiomGenerators;
 import main.operations.auxiliars.HumanReadableAxiomExpressionGenerator;
+import main.operations.auxiliars.ResultStore;
 import main.operations.blackbox.kernel.KernelBuilder;
+import main.operations.blackbox.kernel.KernelStream;
+import main.operations.blackbox.reasoner.ReasonerBackend;
+import main.operations.blackbox.reasoner.ReasonerBackends;
+import main.operations.blackbox.reasoner.ReasoningBudget;
+import main.operations.incisionfunction.AxiomWeight;
 import main.operations.incisionfunction.IncisionFunction;
-import org.semanticweb.HermiT.ReasonerFactory;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLException;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.InferredAxiomGenerator;
 import org.semanticweb.owlapi.util.InferredOntologyGenerator;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -38,7 +47,13 @@ public class KernelContractor {
     /**
      * A factory that constructs the reasoner.
      */
-    private ReasonerFactory reasonerFactory;
+    private OWLReasonerFactory reasonerFactory;
+
+    /**
+     * The backend of the entailment checks over the closure, or {@code null}
+     * to use the reasoner that computes the closure.
+     */
+    private ReasonerBackend reasonerBackend;
 
     /**
      * The ontology manager.
@@ -61,6 +76,99 @@ public class KernelContractor {
      */
     private Integer maxKernelElements = Integer.MAX_VALUE;
 
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * Whether the kernels are expanded by signature reachability from the
+     * formula.
+     */
+    private boolean useSignatureExpansion = false;
+
+    /**
+     * Whether the hitting set tree is pruned by reuse and closing of nodes.
+     */
+    private boolean optimized = false;
+
+    /**
+     * Whether the kernels are shrunk by divide and conquer.
+     */
+    private boolean useDivideAndConquer = false;
+
+    /**
+     * The maximum time of each entailment check, in milliseconds, or
+     * {@code 0} for no limit.
+     */
+    private long checkTimeout = 0;
+
+    /**
+     * The maximum time of the operation, in milliseconds, or {@code 0} for no
+     * limit.
+     */
+    private long timeout = 0;
+
+    /**
+     * Whether the last operation has run out of time.
+     */
+    private boolean partial = false;
+
+    /**
+     * The number of threads that compute the kernel set.
+     */
+    private int threads = 1;
+
+    /**
+     * Whether the kernel set is computed by the combined enumeration of kernels
+     * and remainders.
+     */
+    private boolean useMarco = false;
+
+    /**
+     * Whether the incision function consumes the kernels as soon as they are
+     * found.
+     */
+    private boolean streaming = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
+    /**
+     * Whether the cheapest incision is searched directly, instead of applying
+     * the incision function to the kernel set.
+     */
+    private boolean cheapestIncision = false;
+
+    /**
+     * The weights of the axioms, used to find the cheapest incision.
+     */
+    private AxiomWeight axiomWeight = AxiomWeight.UNIFORM;
+
+    /**
+     * Whether the kernel set of the previous operation is updated, instead
+     * of computed again, when the same sentence is contracted.
+     */
+    private boolean incremental = false;
+
+    /**
+     * The belief set of the previous operation, or {@code null}.
+     */
+    private Set<OWLAxiom> previousKb;
+
+    /**
+     * The sentence of the previous operation, or {@code null}.
+     */
+    private OWLAxiom previousSentence;
+
+    /**
+     * The complete kernel set of the previous operation, or {@code null}.
+     */
+    private Set<Set<OWLAxiom>> previousKernelSet;
+
     /**
      * Instantiates the class.
      *
@@ -71,7 +179,7 @@ public class KernelContractor {
      * @param sigma
      *            an incision function implementation
      */
-    public KernelContractor(OWLOntologyManager manager, ReasonerFactory reasonerFactory, IncisionFunction sigma) {
+    public KernelContractor(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory, IncisionFunction sigma) {
         this.manager = manager;
         this.reasonerFactory = reasonerFactory;
         this.sigma = sigma;
@@ -100,6 +208,9 @@ public class KernelContractor {
                             + HumanReadableAxiomExpressionGenerator
                             .generateExpression(sentence));
         }
+        Metrics.getDefault().setOperation("KC");
+        // start counting the time of the operation
+        ReasoningBudget budget = new ReasoningBudget(checkTimeout, timeout);
         // create reasoner
         OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
         // close under Cn
@@ -116,17 +227,80 @@ public class KernelContractor {
                             .generateExpressionForSet(
                                     inferredOntology.getAxioms()));
         }
+        // the backend was selected for the ontology, and the closure may be
+        // out of its profile
+        OWLReasonerFactory checkFactory = reasonerFactory;
+        if (reasonerBackend != null) {
+            if (ReasonerBackends.isCompleteFor(reasonerBackend, inferredOntology.getAxioms(), sentence)) {
+                checkFactory = reasonerBackend.getReasonerFactory();
+            } else {
+                Logger.getLogger("KC").log(Level.WARNING, String.format(
+                        "The reasoner '%s' is not complete for the ontology closed under Cn: using the reasoner of the closure.",
+                        reasonerBackend.getName()));
+            }
+        }
         // obtain kernel
         KernelBuilder kernelBuilder = new KernelBuilder(
-                OWLManager.createOWLOntologyManager(), reasonerFactory);
+                OWLManager.createOWLOntologyManager(), checkFactory);
         kernelBuilder.setMaxQueueSize(maxQueueSize);
         kernelBuilder.setMaxKernelElements(maxKernelElements);
+        kernelBuilder.setUseModuleExtraction(useModuleExtraction);
+        kernelBuilder.setUseSignatureExpansion(useSignatureExpansion);
+        kernelBuilder.setOptimized(optimized);
+        kernelBuilder.setUseDivideAndConquer(useDivideAndConquer);
+        kernelBuilder.setReasoningBudget(budget);
+        kernelBuilder.setThreads(threads);
+        kernelBuilder.setUseMarco(useMarco);
+        kernelBuilder.setResultStore(resultStore);
         Set<OWLAxiom> kb = inferredOntology.getAxioms();
         if (kb.isEmpty())
             throw new OWLException("The reasoner has failed to find the logic closure.");
-        Set<Set<OWLAxiom>> kernelSet = kernelBuilder.kernelSet(kb, sentence);
-        // apply a selection function
-        Set<OWLAxiom> best = sigma.incise(ontology, kernelSet);
+        Set<OWLAxiom> best = null;
+        if (cheapestIncision) {
+            // the incision is found without the whole kernel set
+            kernelBuilder.setAxiomWeight(axiomWeight);
+            best = kernelBuilder.cheapestIncision(kb, sentence);
+            partial = kernelBuilder.isPartial();
+            if (best == null) {
+                Logger.getLogger("KC").log(Level.WARNING,
+                        "The queue limit has stopped the search for the cheapest incision: using the incision function.");
+            }
+        }
+        if (best == null) {
+            if (streaming) {
+                // apply the incision function while the kernels are found
+                try (KernelStream stream = kernelBuilder.kernelStream(kb, sentence)) {
+                    best = sigma.incise(ontology, logged(stream));
+                    partial = stream.isPartial();
+                }
+            } else {
+                Set<Set<OWLAxiom>> kernelSet;
+                if (incremental && previousKernelSet != null && sentence.equals(previousSentence)) {
+                    // only the kernels affected by the edition are searched
+                    Set<OWLAxiom> added = new HashSet<>(kb);
+                    added.removeAll(previousKb);
+                    Set<OWLAxiom> removed = new HashSet<>(previousKb);
+                    removed.removeAll(kb);
+                    kernelSet = kernelBuilder.updateKernelSet(previousKernelSet, kb, added, removed, sentence);
+                } else {
+                    kernelSet = kernelBuilder.kernelSet(kb, sentence);
+                }
+                partial = kernelBuilder.isPartial();
+                // a kernel set cut by a limit cannot be updated later
+                boolean complete = !partial && maxQueueSize == Integer.MAX_VALUE
+                        && kernelSet.size() < maxKernelElements;
+                previousKb = incremental && complete ? kb : null;
+                previousSentence = incremental && complete ? sentence : null;
+                previousKernelSet = incremental && complete ? kernelSet : null;
+                if (Logger.getLogger("KC").isLoggable(Level.FINE)) {
+                    Logger.getLogger("KC").log(Level.FINE,
+                            "\n---------- ENTAILMENT CACHE: " + kernelBuilder.getEntailmentCache()
+                                    + "\n---------- MONOTONICITY INDEX: " + kernelBuilder.getMonotonicityIndex());
+                }
+                // apply a selection function
+                best = sigma.incise(ontology, kernelSet);
+            }
+        }
         if (Logger.getLogger("KC").isLoggable(Level.FINER)) {
             StringBuilder sb = new StringBuilder(
                     "\n---------- " + (best.size()) + " SELECTED KERNEL ELEMENT"
@@ -152,6 +326,33 @@ public class KernelContractor {
         return axioms;
     }
 
+    /**
+     * Wraps the elements of the kernel set so that each one is logged as it is consumed.
+     */
+    private Iterator<Set<OWLAxiom>> logged(final Iterator<Set<OWLAxiom>> elements) {
+        return new Iterator<Set<OWLAxiom>>() {
+            private int found = 0;
+
+            @Override
+            public boolean hasNext() {
+                return elements.hasNext();
+            }
+
+            @Override
+            public Set<OWLAxiom> next() {
+                Set<OWLAxiom> kernel = elements.next();
+                found++;
+                if (Logger.getLogger("KC").isLoggable(Level.FINE)) {
+                    Logger.getLogger("KC").log(Level.FINE,
+                            String.format("\n---------- KERNEL ELEMENT %d FOUND: \n", found)
+                                    + HumanReadableAxiomExpressionGenerator
+                                    .generateExpressionForSet(kernel));
+                }
+                return kernel;
+            }
+        };
+    }
+
     /**
      * Sets the capacity of the queue used by the algorithm.
      *
@@ -194,4 +395,325 @@ public class KernelContractor {
         this.maxKernelElements = maxKernelElements;
     }
 
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets whether the kernels are shrunk by divide and conquer.
+     *
+     * @return {@code true} if the divide-and-conquer strategy is used
+     */
+    public boolean getUseDivideAndConquer() {
+        return useDivideAndConquer;
+    }
+
+    /**
+     * Sets whether the kernels are shrunk by divide and conquer, which needs
+     * far fewer entailment checks than removing one axiom at a time when the
+     * kernels are small compared to the belief set.
+     *
+     * @param useDivideAndConquer
+     *            {@code true} to use the divide-and-conquer strategy
+     */
+    public void setUseDivideAndConquer(boolean useDivideAndConquer) {
+        this.useDivideAndConquer = useDivideAndConquer;
+    }
+
+    /**
+     * Gets whether the hitting set tree is pruned by reuse and closing of
+     * nodes.
+     *
+     * @return {@code true} if the optimized algorithm is used
+     */
+    public boolean getOptimized() {
+        return optimized;
+    }
+
+    /**
+     * Sets whether the hitting set tree is pruned by reuse and closing of
+     * nodes, which labels many nodes without reasoning. The optimized
+     * algorithm computes the full kernel set and ignores the limits of the
+     * queue and of the kernel set; it is not used with more than one thread
+     * nor with the combined enumeration.
+     *
+     * @param optimized
+     *            {@code true} to use the optimized algorithm
+     */
+    public void setOptimized(boolean optimized) {
+        this.optimized = optimized;
+    }
+
+    /**
+     * Gets whether the kernels are expanded by signature reachability from
+     * the formula.
+     *
+     * @return {@code true} if the signature-based expansion is used
+     */
+    public boolean getUseSignatureExpansion() {
+        return useSignatureExpansion;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability from
+     * the formula, one layer at a time, so that the shrinking works on a
+     * small fragment of the belief set.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Gets the number of threads that compute the kernel set.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that compute the kernel set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders.
+     *
+     * @return {@code true} if the combined enumeration is used
+     */
+    public boolean getUseMarco() {
+        return useMarco;
+    }
+
+    /**
+     * Sets whether the kernel set is computed by the combined enumeration of
+     * kernels and remainders, in the style of the MARCO algorithm.
+     *
+     * @param useMarco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setUseMarco(boolean useMarco) {
+        this.useMarco = useMarco;
+    }
+
+    /**
+     * Gets the maximum time of each entailment check.
+     *
+     * @return the timeout of the checks, in milliseconds, or {@code 0} for no
+     *         limit
+     */
+    public long getCheckTimeout() {
+        return checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check. A check that runs out
+     * of time is interrupted and stops the operation.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Gets the maximum time of the operation.
+     *
+     * @return the timeout of the operation, in milliseconds, or {@code 0} for
+     *         no limit
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. When it runs out, the
+     * operation is computed from the elements of the kernel set found so far.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets whether the incision function consumes the kernels as soon as
+     * they are found.
+     *
+     * @return {@code true} if the kernels are streamed
+     */
+    public boolean getStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets whether the incision function consumes the kernels as soon as
+     * they are found, instead of waiting for the whole kernel set. The
+     * result store is not used while streaming.
+     *
+     * @param streaming
+     *            {@code true} to stream the kernels
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations. The kernel
+     * set is read from it when it was computed before with the same
+     * configuration, and stored in it otherwise.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Gets whether the cheapest incision is searched directly.
+     *
+     * @return {@code true} if the cheapest incision is searched
+     */
+    public boolean getCheapestIncision() {
+        return cheapestIncision;
+    }
+
+    /**
+     * Sets whether the cheapest incision, according to the weights of the
+     * axioms, is searched directly in the hitting set tree, which stops at
+     * the first incision found instead of computing the whole kernel set. The
+     * incision function is then used only if the queue limit stops the
+     * search.
+     *
+     * @param cheapestIncision
+     *            {@code true} to search the cheapest incision
+     */
+    public void setCheapestIncision(boolean cheapestIncision) {
+        this.cheapestIncision = cheapestIncision;
+    }
+
+    /**
+     * Gets the weights of the axioms, used to find the cheapest incision.
+     *
+     * @return the weights of the axioms
+     */
+    public AxiomWeight getAxiomWeight() {
+        return axiomWeight;
+    }
+
+    /**
+     * Sets the weights of the axioms, used to find the cheapest incision.
+     *
+     * @param axiomWeight
+     *            the weights of the axioms
+     */
+    public void setAxiomWeight(AxiomWeight axiomWeight) {
+        this.axiomWeight = axiomWeight;
+    }
+
+    /**
+     * Gets whether the kernel set of the previous operation is updated when
+     * the same sentence is contracted.
+     *
+     * @return {@code true} if the kernel set is updated
+     */
+    public boolean getIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets whether the kernel set of the previous operation is updated,
+     * instead of computed again, when the same sentence is contracted from
+     * an edited ontology. Only the kernels affected by the axioms added to
+     * or removed from the closure are searched, which makes repeated repairs
+     * during an edition much cheaper. The kernel set is kept only when it is
+     * complete: no limit, no time out and no streaming.
+     *
+     * @param incremental
+     *            {@code true} to update the kernel set
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        if (!incremental) {
+            previousKb = null;
+            previousSentence = null;
+            previousKernelSet = null;
+        }
+    }
+
+    /**
+     * Gets whether the last operation has run out of time, in which case its
+     * result was computed from part of the kernel set only.
+     *
+     * @return {@code true} if the result is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Gets the backend of the entailment checks over the closure.
+     *
+     * @return the backend, or {@code null} if the reasoner that computes the
+     *         closure is used
+     */
+    public ReasonerBackend getReasonerBackend() {
+        return reasonerBackend;
+    }
+
+    /**
+     * Sets the backend of the entailment checks over the closure. The
+     * closure is always computed by the reasoner of the contractor, which
+     * answers every query of the inferred axiom generators; the backend is
+     * used only if it is complete for the closure and the sentence.
+     *
+     * @param reasonerBackend
+     *            the backend, or {@code null} to use the reasoner that
+     *            computes the closure
+     */
+    public void setReasonerBackend(ReasonerBackend reasonerBackend) {
+        this.reasonerBackend = reasonerBackend;
+    }
 }
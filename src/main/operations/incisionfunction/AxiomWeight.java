@@ -0,0 +1,32 @@
+package main.operations.incisionfunction;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+/**
+ * Gives the cost of removing an axiom from the belief set, so that cheaper
+ * incisions can be preferred. The weights must not be negative.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public interface AxiomWeight {
+
+    /**
+     * Gives every axiom the same weight, so the cheapest incision is the one
+     * with fewest axioms.
+     */
+    public static final AxiomWeight UNIFORM = new AxiomWeight() {
+        @Override
+        public double weight(OWLAxiom axiom) {
+            return 1;
+        }
+    };
+
+    /**
+     * Returns the cost of removing an axiom.
+     *
+     * @param axiom
+     *            the axiom
+     * @return the weight of the axiom, not negative
+     */
+    public double weight(OWLAxiom axiom);
+}
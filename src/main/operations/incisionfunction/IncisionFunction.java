@@ -3,6 +3,8 @@ package main.operations.incisionfunction;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -28,4 +30,23 @@ public interface IncisionFunction {
      * @return the selected elements
      */
     public Set<OWLAxiom> incise(OWLOntology ontology, Set<Set<OWLAxiom>> setOfSets);
+
+    /**
+     * Returns the result of the incision function for a kernel set given
+     * element by element, as they are found. By default, the elements are
+     * collected before the incision; implementations that can select while
+     * reading should override it.
+     *
+     * @param ontology
+     *            the original ontology
+     * @param elements
+     *            the elements of the kernel set
+     * @return the selected elements
+     */
+    public default Set<OWLAxiom> incise(OWLOntology ontology, Iterator<Set<OWLAxiom>> elements) {
+        Set<Set<OWLAxiom>> setOfSets = new HashSet<>();
+        while (elements.hasNext())
+            setOfSets.add(elements.next());
+        return incise(ontology, setOfSets);
+    }
 }
@@ -0,0 +1,484 @@
+package main.operations.incisionfunction;
+
+import main.operations.metrics.Metrics;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This incision function returns a minimum hitting set of the kernel set,
+ * i.e., the cheapest set of axioms that has at least one axiom of each
+ * element, according to the weights of the axioms. With the uniform weights,
+ * it is a hitting set with fewest axioms.
+ *
+ * The hitting set is computed by branch and bound over the kernels encoded
+ * as bitsets. A greedy hitting set is the first bound, and the bound of a
+ * node is the sum of the cheapest axiom of pairwise disjoint kernels not hit
+ * yet. If the time limit runs out, the best hitting set found so far is
+ * returned, which is still a minimal one (see {@link #isOptimal()}).
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class IncisionFunctionMinimum implements IncisionFunction {
+
+    /**
+     * The default time limit of the search, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_LIMIT = 10000;
+
+    private static final Logger LOGGER = Logger.getLogger(IncisionFunctionMinimum.class.getName());
+
+    /**
+     * The weights of the axioms.
+     */
+    private AxiomWeight axiomWeight;
+
+    /**
+     * The time limit of the search, in milliseconds, or {@code 0} for no
+     * limit.
+     */
+    private long timeLimit = DEFAULT_TIME_LIMIT;
+
+    /**
+     * Whether the last incision is known to be a minimum one.
+     */
+    private boolean optimal = true;
+
+    /**
+     * Instantiates the class with the uniform weights.
+     */
+    public IncisionFunctionMinimum() {
+        this(AxiomWeight.UNIFORM);
+    }
+
+    /**
+     * Instantiates the class.
+     *
+     * @param axiomWeight
+     *            the weights of the axioms
+     */
+    public IncisionFunctionMinimum(AxiomWeight axiomWeight) {
+        this.axiomWeight = axiomWeight;
+    }
+
+    @Override
+    public Set<OWLAxiom> incise(OWLOntology ontology, Set<Set<OWLAxiom>> setOfSets) {
+        if (setOfSets.isEmpty()) {
+            return ontology.getAxioms();
+        }
+
+        long start = System.nanoTime();
+        long deadline = timeLimit > 0 ? start + timeLimit * 1000000 : Long.MAX_VALUE;
+        Solver solver = new Solver(setOfSets, axiomWeight);
+        optimal = solver.solve(deadline);
+        Metrics.getDefault().increment(getClass(), "search nodes", solver.nodes);
+        Metrics.getDefault().recordTime(getClass(), "incise", start);
+        if (!optimal) {
+            LOGGER.log(Level.WARNING, String.format(
+                    "The search for a minimum incision has run out of time: using one of weight %s.",
+                    solver.bestCost));
+        }
+        return solver.best();
+    }
+
+    /**
+     * Gets the weights of the axioms.
+     *
+     * @return the weights of the axioms
+     */
+    public AxiomWeight getAxiomWeight() {
+        return axiomWeight;
+    }
+
+    /**
+     * Sets the weights of the axioms.
+     *
+     * @param axiomWeight
+     *            the weights of the axioms
+     */
+    public void setAxiomWeight(AxiomWeight axiomWeight) {
+        this.axiomWeight = axiomWeight;
+    }
+
+    /**
+     * Gets the time limit of the search.
+     *
+     * @return the time limit, in milliseconds, or {@code 0} for no limit
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets the time limit of the search. When it runs out, the best incision
+     * found so far is returned.
+     *
+     * @param timeLimit
+     *            the time limit, in milliseconds, or {@code 0} for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Gets whether the last incision is known to be a minimum one, i.e., the
+     * search has not run out of time.
+     *
+     * @return {@code true} if the last incision is a minimum one
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * The branch and bound search for a minimum hitting set. The axioms and
+     * the kernels are numbered, each kernel is the bitset of its axioms and
+     * each axiom the bitset of the kernels that contain it.
+     */
+    private static final class Solver {
+
+        private final OWLAxiom[] axioms;
+        private final double[] weights;
+
+        /**
+         * The axioms of each kernel, by increasing number of axioms. Kernels
+         * that contain another one are dropped, since any hitting set of the
+         * other hits them.
+         */
+        private final long[][] kernels;
+
+        /**
+         * The kernels that contain each axiom.
+         */
+        private final long[][] hits;
+
+        private double bestCost = Double.POSITIVE_INFINITY;
+        private long[] best;
+        private long nodes = 0;
+        private long deadline;
+        private boolean timedOut = false;
+
+        Solver(Set<Set<OWLAxiom>> setOfSets, AxiomWeight axiomWeight) {
+            Map<OWLAxiom, Integer> ids = new HashMap<>();
+            List<OWLAxiom> axiomList = new ArrayList<>();
+            List<Set<OWLAxiom>> sorted = new ArrayList<>();
+            for (Set<OWLAxiom> set : setOfSets) {
+                // an empty kernel cannot be hit
+                if (!set.isEmpty())
+                    sorted.add(set);
+            }
+            Collections.sort(sorted, new Comparator<Set<OWLAxiom>>() {
+                @Override
+                public int compare(Set<OWLAxiom> a, Set<OWLAxiom> b) {
+                    return Integer.compare(a.size(), b.size());
+                }
+            });
+            for (Set<OWLAxiom> set : sorted) {
+                for (OWLAxiom axiom : set) {
+                    if (!ids.containsKey(axiom)) {
+                        ids.put(axiom, axiomList.size());
+                        axiomList.add(axiom);
+                    }
+                }
+            }
+            axioms = axiomList.toArray(new OWLAxiom[0]);
+            weights = new double[axioms.length];
+            for (int i = 0; i < axioms.length; i++)
+                weights[i] = axiomWeight.weight(axioms[i]);
+
+            // smaller kernels first, so that a kernel is only compared with
+            // the ones that may be contained in it
+            List<long[]> kept = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            for (Set<OWLAxiom> set : sorted) {
+                long[] kernel = new long[words(axioms.length)];
+                for (OWLAxiom axiom : set)
+                    set(kernel, ids.get(axiom));
+                boolean redundant = false;
+                for (int k = 0; k < kept.size() && sizes.get(k) < set.size(); k++) {
+                    if (containsAll(kernel, kept.get(k))) {
+                        redundant = true;
+                        break;
+                    }
+                }
+                if (!redundant) {
+                    kept.add(kernel);
+                    sizes.add(set.size());
+                }
+            }
+            kernels = kept.toArray(new long[0][]);
+            hits = new long[axioms.length][words(kernels.length)];
+            for (int k = 0; k < kernels.length; k++) {
+                for (int a = nextSetBit(kernels[k], 0); a >= 0; a = nextSetBit(kernels[k], a + 1))
+                    set(hits[a], k);
+            }
+        }
+
+        /**
+         * Searches for a minimum hitting set.
+         *
+         * @return {@code true} if the search has finished before the deadline
+         */
+        boolean solve(long deadline) {
+            this.deadline = deadline;
+            greedy();
+            long[] unhit = new long[words(kernels.length)];
+            for (int k = 0; k < kernels.length; k++)
+                set(unhit, k);
+            search(unhit, new long[words(axioms.length)], new long[words(axioms.length)], 0);
+            return !timedOut;
+        }
+
+        /**
+         * Gets the best hitting set found.
+         */
+        Set<OWLAxiom> best() {
+            Set<OWLAxiom> result = new HashSet<>();
+            for (int a = nextSetBit(best, 0); a >= 0; a = nextSetBit(best, a + 1))
+                result.add(axioms[a]);
+            return result;
+        }
+
+        /**
+         * Builds the first hitting set by taking, each time, the axiom that
+         * hits the most kernels not hit yet for its weight.
+         */
+        private void greedy() {
+            long[] unhit = new long[words(kernels.length)];
+            for (int k = 0; k < kernels.length; k++)
+                set(unhit, k);
+            long[] chosen = new long[words(axioms.length)];
+            while (!isEmpty(unhit)) {
+                int bestAxiom = -1;
+                double bestRatio = -1;
+                for (int a = 0; a < axioms.length; a++) {
+                    int count = intersectionSize(hits[a], unhit);
+                    if (count == 0)
+                        continue;
+                    double ratio = weights[a] > 0 ? count / weights[a] : Double.POSITIVE_INFINITY;
+                    if (ratio > bestRatio) {
+                        bestRatio = ratio;
+                        bestAxiom = a;
+                    }
+                }
+                set(chosen, bestAxiom);
+                andNot(unhit, hits[bestAxiom]);
+            }
+            minimize(chosen);
+            record(chosen);
+        }
+
+        /**
+         * Explores the hitting sets that contain the chosen axioms and none
+         * of the forbidden ones.
+         */
+        private void search(long[] unhit, long[] forbidden, long[] chosen, double cost) {
+            if (timedOut)
+                return;
+            if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+                return;
+            }
+            if (isEmpty(unhit)) {
+                if (cost < bestCost) {
+                    long[] solution = chosen.clone();
+                    minimize(solution);
+                    record(solution);
+                }
+                return;
+            }
+            if (cost + lowerBound(unhit, forbidden) >= bestCost)
+                return;
+            // branch on the kernel with the fewest allowed axioms
+            int branch = -1;
+            int fewest = Integer.MAX_VALUE;
+            for (int k = nextSetBit(unhit, 0); k >= 0; k = nextSetBit(unhit, k + 1)) {
+                int size = differenceSize(kernels[k], forbidden);
+                if (size < fewest) {
+                    fewest = size;
+                    branch = k;
+                }
+            }
+            final int[] coverage = new int[axioms.length];
+            List<Integer> candidates = new ArrayList<>();
+            for (int a = nextSetBit(kernels[branch], 0); a >= 0; a = nextSetBit(kernels[branch], a + 1)) {
+                if (!get(forbidden, a)) {
+                    coverage[a] = intersectionSize(hits[a], unhit);
+                    candidates.add(a);
+                }
+            }
+            Collections.sort(candidates, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(coverage[b] / Math.max(weights[b], 1e-9),
+                            coverage[a] / Math.max(weights[a], 1e-9));
+                }
+            });
+            long[] excluded = forbidden.clone();
+            for (int a : candidates) {
+                long[] remaining = unhit.clone();
+                andNot(remaining, hits[a]);
+                set(chosen, a);
+                search(remaining, excluded, chosen, cost + weights[a]);
+                clear(chosen, a);
+                // the next branches do not take this axiom, so every hitting
+                // set is explored once
+                set(excluded, a);
+            }
+        }
+
+        /**
+         * Sums the cheapest allowed axiom of pairwise disjoint kernels not hit
+         * yet, which any hitting set must pay for.
+         */
+        private double lowerBound(long[] unhit, long[] forbidden) {
+            long[] used = new long[words(axioms.length)];
+            double bound = 0;
+            for (int k = nextSetBit(unhit, 0); k >= 0; k = nextSetBit(unhit, k + 1)) {
+                long[] kernel = kernels[k];
+                double cheapest = Double.POSITIVE_INFINITY;
+                boolean disjoint = true;
+                for (int w = 0; w < kernel.length; w++) {
+                    long allowed = kernel[w] & ~forbidden[w];
+                    if ((allowed & used[w]) != 0) {
+                        disjoint = false;
+                        break;
+                    }
+                    for (long bits = allowed; bits != 0; bits &= bits - 1)
+                        cheapest = Math.min(cheapest, weights[w * 64 + Long.numberOfTrailingZeros(bits)]);
+                }
+                if (!disjoint)
+                    continue;
+                // every axiom of the kernel is forbidden: no hitting set
+                if (cheapest == Double.POSITIVE_INFINITY)
+                    return Double.POSITIVE_INFINITY;
+                bound += cheapest;
+                for (int w = 0; w < kernel.length; w++)
+                    used[w] |= kernel[w] & ~forbidden[w];
+            }
+            return bound;
+        }
+
+        /**
+         * Removes the axioms of a hitting set that are not needed, the most
+         * expensive first.
+         */
+        private void minimize(long[] chosen) {
+            List<Integer> members = new ArrayList<>();
+            for (int a = nextSetBit(chosen, 0); a >= 0; a = nextSetBit(chosen, a + 1))
+                members.add(a);
+            Collections.sort(members, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(weights[b], weights[a]);
+                }
+            });
+            for (int a : members) {
+                clear(chosen, a);
+                if (!hitsAll(chosen))
+                    set(chosen, a);
+            }
+        }
+
+        private boolean hitsAll(long[] chosen) {
+            for (long[] kernel : kernels) {
+                if (!intersects(kernel, chosen))
+                    return false;
+            }
+            return true;
+        }
+
+        private void record(long[] solution) {
+            double cost = 0;
+            for (int a = nextSetBit(solution, 0); a >= 0; a = nextSetBit(solution, a + 1))
+                cost += weights[a];
+            if (cost < bestCost || best == null) {
+                bestCost = cost;
+                best = solution;
+            }
+        }
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static void clear(long[] bits, int i) {
+        bits[i >>> 6] &= ~(1L << i);
+    }
+
+    private static boolean get(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= bits.length)
+            return -1;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0)
+                return w * 64 + Long.numberOfTrailingZeros(word);
+            if (++w == bits.length)
+                return -1;
+            word = bits[w];
+        }
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static void andNot(long[] bits, long[] other) {
+        for (int w = 0; w < bits.length; w++)
+            bits[w] &= ~other[w];
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean containsAll(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((b[w] & ~a[w]) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static int intersectionSize(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++)
+            count += Long.bitCount(a[w] & b[w]);
+        return count;
+    }
+
+    private static int differenceSize(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++)
+            count += Long.bitCount(a[w] & ~b[w]);
+        return count;
+    }
+}
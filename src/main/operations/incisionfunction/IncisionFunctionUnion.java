@@ -4,6 +4,7 @@ import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -27,4 +28,23 @@ public class IncisionFunctionUnion implements IncisionFunction {
 
         return result;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The union is built as the elements arrive, so they are not kept.
+     */
+    @Override
+    public Set<OWLAxiom> incise(OWLOntology ontology, Iterator<Set<OWLAxiom>> elements) {
+        if (!elements.hasNext()) {
+            return ontology.getAxioms();
+        }
+
+        HashSet<OWLAxiom> result = new HashSet<>();
+        while (elements.hasNext()) {
+            result.addAll(elements.next());
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,35 @@
+package main.operations.incisionfunction;
+
+/**
+ * The registry of the incision functions that can be chosen by name.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class IncisionFunctions {
+
+    /**
+     * The name of {@link IncisionFunctionUnion}.
+     */
+    public static final String UNION = "union";
+
+    /**
+     * The name of {@link IncisionFunctionMinimum}, with the uniform weights.
+     */
+    public static final String MINIMUM = "minimum";
+
+    /**
+     * Returns a new incision function with a given name.
+     *
+     * @param name
+     *            the name of the incision function
+     * @return the incision function, or {@code null} if there is none with
+     *         that name
+     */
+    public static IncisionFunction get(String name) {
+        if (UNION.equalsIgnoreCase(name))
+            return new IncisionFunctionUnion();
+        if (MINIMUM.equalsIgnoreCase(name))
+            return new IncisionFunctionMinimum();
+        return null;
+    }
+}
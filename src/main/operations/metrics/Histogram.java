@@ -0,0 +1,145 @@
+package main.operations.metrics;
+
+/**
+ * A histogram of non-negative values with buckets of powers of two.
+ *
+ * Besides the buckets, the count, the sum, the minimum and the maximum are
+ * exact. Quantiles are estimated from the buckets, so they are exact up to a
+ * factor of two.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class Histogram {
+
+    /**
+     * The number of buckets. The bucket {@code i > 0} holds the values in
+     * [2^(i-1), 2^i); the bucket 0 holds the zeros.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * Whether the values are durations in nanoseconds.
+     */
+    private final boolean nanos;
+
+    private final long[] buckets = new long[BUCKETS];
+
+    private long count = 0;
+
+    private long sum = 0;
+
+    private long min = Long.MAX_VALUE;
+
+    private long max = 0;
+
+    /**
+     * Instantiates the class.
+     *
+     * @param nanos
+     *            whether the values are durations in nanoseconds
+     */
+    public Histogram(boolean nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value
+     *            the value; negative values are recorded as zero
+     */
+    public synchronized void record(long value) {
+        if (value < 0)
+            value = 0;
+        buckets[64 - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return the sum
+     */
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return the minimum, or {@code 0} if there are no values
+     */
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return the mean, or {@code 0} if there are no values
+     */
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Estimates a quantile of the recorded values: the upper bound of the
+     * bucket where it lies, limited by the maximum.
+     *
+     * @param q
+     *            the quantile, between 0 and 1
+     * @return the estimate, or {@code 0} if there are no values
+     */
+    public synchronized long getQuantile(double q) {
+        if (count == 0)
+            return 0;
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank && buckets[i] > 0)
+                return i == 0 ? 0 : Math.min(max, i == 63 ? Long.MAX_VALUE : (1L << i) - 1);
+        }
+        return max;
+    }
+
+    /**
+     * Gets whether the values are durations in nanoseconds.
+     *
+     * @return {@code true} if the values are durations
+     */
+    public boolean isNanos() {
+        return nanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (nanos)
+            return String.format("n=%d total=%.1fms mean=%.3fms p50<=%.3fms p90<=%.3fms p99<=%.3fms max=%.3fms",
+                    count, sum / 1e6, getMean() / 1e6, getQuantile(0.5) / 1e6, getQuantile(0.9) / 1e6,
+                    getQuantile(0.99) / 1e6, max / 1e6);
+        return String.format("n=%d mean=%.1f p50<=%d p90<=%d p99<=%d max=%d", count, getMean(),
+                getQuantile(0.5), getQuantile(0.9), getQuantile(0.99), max);
+    }
+}
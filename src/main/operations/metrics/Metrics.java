@@ -0,0 +1,287 @@
+package main.operations.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A registry of counters and histograms that tell where an operation spends
+ * its time.
+ *
+ * Every metric is tagged by the operation being executed (e.g., "KC"), by
+ * the class that records it (e.g., a shrinking strategy) and by its name
+ * (e.g., "isEntailed"). The operation is set by the contractors, the reviser
+ * and the pseudo-contractor when they start.
+ *
+ * @author Luís F. de M. C. Silva
+ */
+public class Metrics {
+
+    /**
+     * The registry used by the operations.
+     */
+    private static final Metrics DEFAULT = new Metrics();
+
+    /**
+     * The operation used to tag the metrics.
+     */
+    private volatile String operation = "-";
+
+    private final ConcurrentMap<Key, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the registry used by the operations.
+     *
+     * @return the default registry
+     */
+    public static Metrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the operation used to tag the metrics recorded from now on.
+     *
+     * @param operation
+     *            the name of the operation
+     */
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Gets the operation used to tag the metrics.
+     *
+     * @return the name of the operation
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the counter
+     */
+    public void increment(Class<?> source, String name) {
+        increment(source, name, 1);
+    }
+
+    /**
+     * Adds a value to a counter.
+     *
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the counter
+     * @param delta
+     *            the value added
+     */
+    public void increment(Class<?> source, String name, long delta) {
+        Key key = new Key(operation, source.getSimpleName(), name);
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            counters.putIfAbsent(key, new AtomicLong());
+            counter = counters.get(key);
+        }
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * Records a value, such as the size of a queue, in a histogram.
+     *
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the histogram
+     * @param value
+     *            the value
+     */
+    public void record(Class<?> source, String name, long value) {
+        histogram(source, name, false).record(value);
+    }
+
+    /**
+     * Records the time elapsed since a given instant in a histogram of
+     * latencies.
+     *
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the histogram
+     * @param start
+     *            the {@link System#nanoTime()} at the start of the call
+     */
+    public void recordTime(Class<?> source, String name, long start) {
+        histogram(source, name, true).record(System.nanoTime() - start);
+    }
+
+    private Histogram histogram(Class<?> source, String name, boolean nanos) {
+        Key key = new Key(operation, source.getSimpleName(), name);
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histograms.putIfAbsent(key, new Histogram(nanos));
+            histogram = histograms.get(key);
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the value of a counter.
+     *
+     * @param operation
+     *            the operation
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the counter
+     * @return the value, or {@code 0} if nothing has been counted
+     */
+    public long getCount(String operation, Class<?> source, String name) {
+        AtomicLong counter = counters.get(new Key(operation, source.getSimpleName(), name));
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Gets a histogram.
+     *
+     * @param operation
+     *            the operation
+     * @param source
+     *            the class that records the metric
+     * @param name
+     *            the name of the histogram
+     * @return the histogram, or {@code null} if nothing has been recorded
+     */
+    public Histogram getHistogram(String operation, Class<?> source, String name) {
+        return histograms.get(new Key(operation, source.getSimpleName(), name));
+    }
+
+    /**
+     * Gets every counter.
+     *
+     * @return the value of each counter
+     */
+    public Map<Key, Long> getCounters() {
+        Map<Key, Long> values = new TreeMap<>();
+        for (Map.Entry<Key, AtomicLong> e : counters.entrySet())
+            values.put(e.getKey(), e.getValue().get());
+        return values;
+    }
+
+    /**
+     * Gets every histogram.
+     *
+     * @return the histograms
+     */
+    public Map<Key, Histogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Removes every metric.
+     */
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    /**
+     * Returns a report of every metric, grouped by operation and class.
+     *
+     * @return the report
+     */
+    public String report() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Key, Long> e : getCounters().entrySet())
+            lines.add(e.getKey() + " " + e.getValue());
+        for (Map.Entry<Key, Histogram> e : getHistograms().entrySet())
+            lines.add(e.getKey() + " " + e.getValue());
+        Collections.sort(lines);
+        StringBuilder sb = new StringBuilder("---------- METRICS");
+        for (String line : lines)
+            sb.append('\n').append(line);
+        return sb.toString();
+    }
+
+    /**
+     * The tags of a metric.
+     */
+    public static final class Key implements Comparable<Key> {
+
+        private final String operation;
+        private final String source;
+        private final String name;
+
+        private Key(String operation, String source, String name) {
+            this.operation = operation;
+            this.source = source;
+            this.name = name;
+        }
+
+        /**
+         * Gets the operation.
+         *
+         * @return the name of the operation
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * Gets the class that records the metric.
+         *
+         * @return the simple name of the class
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * Gets the name of the metric.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            int c = operation.compareTo(o.operation);
+            if (c == 0)
+                c = source.compareTo(o.source);
+            return c != 0 ? c : name.compareTo(o.name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return operation.equals(other.operation) && source.equals(other.source) && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operation, source, name);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %s.%s", operation, source, name);
+        }
+    }
+}
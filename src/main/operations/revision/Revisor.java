@@ -2,14 +2,20 @@ package main.operations.revision;
 
 import main.operations.auxiliars.AxiomGenerators;
 import main.operations.auxiliars.HumanReadableAxiomExpressionGenerator;
+import main.operations.auxiliars.ResultStore;
 import main.operations.blackbox.kernel.RevisionKernelBuilder;
+import main.operations.blackbox.reasoner.ReasonerBackend;
+import main.operations.blackbox.reasoner.ReasonerBackends;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import main.operations.incisionfunction.IncisionFunction;
-import org.semanticweb.HermiT.ReasonerFactory;
+import main.operations.metrics.Metrics;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.InferredAxiomGenerator;
 import org.semanticweb.owlapi.util.InferredOntologyGenerator;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -35,7 +41,13 @@ public class Revisor {
     /**
      * A factory that constructs the reasoner.
      */
-    private ReasonerFactory reasonerFactory;
+    private OWLReasonerFactory reasonerFactory;
+
+    /**
+     * The backend of the entailment checks over the closure, or {@code null}
+     * to use the reasoner that computes the closure.
+     */
+    private ReasonerBackend reasonerBackend;
 
     /**
      * The ontology manager.
@@ -57,6 +69,45 @@ public class Revisor {
      */
     private int maxSetElements = Integer.MAX_VALUE;
 
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * Whether the kernels are expanded by signature reachability from the
+     * revised sentence.
+     */
+    private boolean useSignatureExpansion = false;
+
+    /**
+     * The number of threads that compute the kernel set.
+     */
+    private int threads = 1;
+
+    /**
+     * The maximum time of each entailment check, in milliseconds, or
+     * {@code 0} for no limit.
+     */
+    private long checkTimeout = 0;
+
+    /**
+     * The maximum time of the operation, in milliseconds, or {@code 0} for no
+     * limit.
+     */
+    private long timeout = 0;
+
+    /**
+     * Whether the last operation has run out of time.
+     */
+    private boolean partial = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
     /**
      * Instantiates the class.
      *
@@ -67,7 +118,7 @@ public class Revisor {
      * @param sigma
      *            an incision function implementation
      */
-    public Revisor(OWLOntologyManager manager, ReasonerFactory reasonerFactory, IncisionFunction sigma) {
+    public Revisor(OWLOntologyManager manager, OWLReasonerFactory reasonerFactory, IncisionFunction sigma) {
         this.manager = manager;
         this.reasonerFactory = reasonerFactory;
         this.sigma = sigma;
@@ -96,6 +147,9 @@ public class Revisor {
                             + HumanReadableAxiomExpressionGenerator
                             .generateExpression(sentence));
         }
+        Metrics.getDefault().setOperation("RV");
+        // start counting the time of the operation
+        ReasoningBudget budget = new ReasoningBudget(checkTimeout, timeout);
         // create reasoner
         OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
         manager.addAxiom(ontology, sentence);
@@ -113,14 +167,46 @@ public class Revisor {
                             .generateExpressionForSet(
                                     inferredOntology.getAxioms()));
         }
+        // the backend was selected for the ontology, and the closure may be
+        // out of its profile
+        OWLReasonerFactory checkFactory = reasonerFactory;
+        if (reasonerBackend != null) {
+            if (ReasonerBackends.isCompleteFor(reasonerBackend, inferredOntology.getAxioms(), sentence)) {
+                checkFactory = reasonerBackend.getReasonerFactory();
+            } else {
+                Logger.getLogger("RV").log(Level.WARNING, String.format(
+                        "The reasoner '%s' is not complete for the ontology closed under Cn: using the reasoner of the closure.",
+                        reasonerBackend.getName()));
+            }
+        }
         // obtain set
-        RevisionKernelBuilder revisionKernelBuilder = new RevisionKernelBuilder(manager, reasonerFactory);
+        RevisionKernelBuilder revisionKernelBuilder = new RevisionKernelBuilder(manager, checkFactory);
         revisionKernelBuilder.setMaxQueueSize(maxQueueSize);
         revisionKernelBuilder.setMaxKernelElements(maxSetElements);
+        revisionKernelBuilder.setUseModuleExtraction(useModuleExtraction);
+        revisionKernelBuilder.setUseSignatureExpansion(useSignatureExpansion);
+        revisionKernelBuilder.setThreads(threads);
+        revisionKernelBuilder.setReasoningBudget(budget);
+        revisionKernelBuilder.setResultStore(resultStore);
         Set<Set<OWLAxiom>> revisionSet = revisionKernelBuilder.kernelSet(inferredOntology.getAxioms(), sentence);
+        partial = revisionKernelBuilder.isPartial();
+        if (Logger.getLogger("RV").isLoggable(Level.FINE)) {
+            Logger.getLogger("RV").log(Level.FINE,
+                    "\n---------- ENTAILMENT CACHE: " + revisionKernelBuilder.getEntailmentCache()
+                            + "\n---------- MONOTONICITY INDEX: " + revisionKernelBuilder.getMonotonicityIndex());
+        }
+
+        // the sentence is added back anyway, so the incision must hit the
+        // other axioms of each element
+        Set<Set<OWLAxiom>> incisionSet = new HashSet<>();
+        for (Set<OWLAxiom> element : revisionSet) {
+            Set<OWLAxiom> rest = new HashSet<>(element);
+            rest.remove(sentence);
+            incisionSet.add(rest);
+        }
 
         // apply a selection function
-        Set<OWLAxiom> best = sigma.incise(ontology, revisionSet);
+        Set<OWLAxiom> best = sigma.incise(ontology, incisionSet);
         if (Logger.getLogger("RV").isLoggable(Level.FINER)) {
             StringBuilder sb = new StringBuilder(
                     "\n---------- " + (best.size()) + " SELECTED ELEMENT"
@@ -189,4 +275,166 @@ public class Revisor {
     public void setMaxSetElements(int maxSetElements) {
         this.maxSetElements = maxSetElements;
     }
+
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets whether the kernels are expanded by signature reachability from
+     * the revised sentence.
+     *
+     * @return {@code true} if the signature-based expansion is used
+     */
+    public boolean getUseSignatureExpansion() {
+        return useSignatureExpansion;
+    }
+
+    /**
+     * Sets whether the kernels are expanded by signature reachability from
+     * the revised sentence, one layer at a time, so that the shrinking works
+     * on a small fragment of the belief set.
+     *
+     * @param useSignatureExpansion
+     *            {@code true} to use the signature-based expansion
+     */
+    public void setUseSignatureExpansion(boolean useSignatureExpansion) {
+        this.useSignatureExpansion = useSignatureExpansion;
+    }
+
+    /**
+     * Gets the number of threads that compute the kernel set.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that compute the kernel set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the maximum time of each entailment check.
+     *
+     * @return the timeout of the checks, in milliseconds, or {@code 0} for no
+     *         limit
+     */
+    public long getCheckTimeout() {
+        return checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check. A check that runs out
+     * of time is interrupted and stops the operation.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Gets the maximum time of the operation.
+     *
+     * @return the timeout of the operation, in milliseconds, or {@code 0} for
+     *         no limit
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. When it runs out, the
+     * operation is computed from the elements of the kernel set found so far.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations. The kernel
+     * set is read from it when it was computed before with the same
+     * configuration, and stored in it otherwise.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Gets whether the last operation has run out of time, in which case its
+     * result was computed from part of the kernel set only.
+     *
+     * @return {@code true} if the result is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Gets the backend of the entailment checks over the closure.
+     *
+     * @return the backend, or {@code null} if the reasoner that computes the
+     *         closure is used
+     */
+    public ReasonerBackend getReasonerBackend() {
+        return reasonerBackend;
+    }
+
+    /**
+     * Sets the backend of the entailment checks over the closure. The
+     * closure is always computed by the reasoner of the contractor, which
+     * answers every query of the inferred axiom generators; the backend is
+     * used only if it is complete for the closure and the sentence.
+     *
+     * @param reasonerBackend
+     *            the backend, or {@code null} to use the reasoner that
+     *            computes the closure
+     */
+    public void setReasonerBackend(ReasonerBackend reasonerBackend) {
+        this.reasonerBackend = reasonerBackend;
+    }
 }
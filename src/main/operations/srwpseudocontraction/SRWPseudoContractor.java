@@ -2,7 +2,10 @@ package main.operations.srwpseudocontraction;
 
 import main.operations.auxiliars.AxiomGenerators;
 import main.operations.auxiliars.HumanReadableAxiomExpressionGenerator;
+import main.operations.auxiliars.ResultStore;
+import main.operations.blackbox.reasoner.ReasoningBudget;
 import main.operations.blackbox.remainder.RemainderBuilder;
+import main.operations.metrics.Metrics;
 import main.operations.selectionfunctions.SelectionFunction;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
@@ -60,6 +63,50 @@ public class SRWPseudoContractor {
      */
     private int maxRemainderElements = Integer.MAX_VALUE;
 
+    /**
+     * Whether the search is restricted to the locality-based module of the
+     * formula.
+     */
+    private boolean useModuleExtraction = false;
+
+    /**
+     * The number of threads that compute the remainder set.
+     */
+    private int threads = 1;
+
+    /**
+     * Whether the remainder set is computed by the combined enumeration of kernels
+     * and remainders.
+     */
+    private boolean useMarco = false;
+
+    /**
+     * Whether the remainder set is computed from the kernel set.
+     */
+    private boolean useKernelDuality = false;
+
+    /**
+     * The maximum time of each entailment check, in milliseconds, or
+     * {@code 0} for no limit.
+     */
+    private long checkTimeout = 0;
+
+    /**
+     * The maximum time of the operation, in milliseconds, or {@code 0} for no
+     * limit.
+     */
+    private long timeout = 0;
+
+    /**
+     * Whether the last operation has run out of time.
+     */
+    private boolean partial = false;
+
+    /**
+     * The store of the results of previous computations, or {@code null}.
+     */
+    private ResultStore resultStore;
+
     /**
      * Instantiates the class.
      *
@@ -100,6 +147,9 @@ public class SRWPseudoContractor {
                             + HumanReadableAxiomExpressionGenerator
                                     .generateExpression(sentence));
         }
+        Metrics.getDefault().setOperation("SRW");
+        // start counting the time of the operation
+        ReasoningBudget budget = new ReasoningBudget(checkTimeout, timeout);
         // create reasoner
         OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
         // close under Cn*
@@ -121,10 +171,25 @@ public class SRWPseudoContractor {
                 OWLManager.createOWLOntologyManager(), reasonerFactory);
         remainderBuilder.setMaxQueueSize(maxQueueSize);
         remainderBuilder.setMaxRemainderElements(maxRemainderElements);
+        remainderBuilder.setUseModuleExtraction(useModuleExtraction);
+        remainderBuilder.setThreads(threads);
+        remainderBuilder.setUseMarco(useMarco);
+        remainderBuilder.setUseKernelDuality(useKernelDuality);
+        remainderBuilder.setReasoningBudget(budget);
+        remainderBuilder.setResultStore(resultStore);
         Set<OWLAxiom> kb = inferredOntology.getAxioms();
         if (kb.isEmpty())
             throw new OWLException("The reasoner has failed to find the logic closure.");
         Set<Set<OWLAxiom>> remainderSet = remainderBuilder.remainderSet(kb, sentence);
+        partial = remainderBuilder.isPartial();
+        if (Logger.getLogger("SRW").isLoggable(Level.FINE)) {
+            Logger.getLogger("SRW").log(Level.FINE,
+                    "\n---------- ENTAILMENT CACHE: " + remainderBuilder.getEntailmentCache()
+                            + "\n---------- MONOTONICITY INDEX: " + remainderBuilder.getMonotonicityIndex());
+        }
+        // the time may have run out before any element was found
+        if (remainderSet.isEmpty())
+            return ontology.getAxioms();
         // apply a selection function
         Set<Set<OWLAxiom>> best = gamma.select(ontology, remainderSet);
         if (Logger.getLogger("SRW").isLoggable(Level.FINER)) {
@@ -216,4 +281,161 @@ public class SRWPseudoContractor {
     public void setMaxRemainderElements(int maxRemainderElements) {
         this.maxRemainderElements = maxRemainderElements;
     }
+
+    /**
+     * Gets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @return {@code true} if the module is extracted
+     */
+    public boolean getUseModuleExtraction() {
+        return useModuleExtraction;
+    }
+
+    /**
+     * Sets whether the search is restricted to the locality-based module of
+     * the formula.
+     *
+     * @param useModuleExtraction
+     *            {@code true} to extract the module
+     */
+    public void setUseModuleExtraction(boolean useModuleExtraction) {
+        this.useModuleExtraction = useModuleExtraction;
+    }
+
+    /**
+     * Gets the number of threads that compute the remainder set.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads that compute the remainder set.
+     *
+     * @param threads
+     *            the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Gets whether the remainder set is computed by the combined enumeration of
+     * kernels and remainders.
+     *
+     * @return {@code true} if the combined enumeration is used
+     */
+    public boolean getUseMarco() {
+        return useMarco;
+    }
+
+    /**
+     * Sets whether the remainder set is computed by the combined enumeration of
+     * kernels and remainders, in the style of the MARCO algorithm.
+     *
+     * @param useMarco
+     *            {@code true} to use the combined enumeration
+     */
+    public void setUseMarco(boolean useMarco) {
+        this.useMarco = useMarco;
+    }
+
+    /**
+     * Gets whether the remainder set is computed from the kernel set.
+     *
+     * @return {@code true} if the kernel duality is used
+     */
+    public boolean getUseKernelDuality() {
+        return useKernelDuality;
+    }
+
+    /**
+     * Sets whether the remainder set is computed from the kernel set, as
+     * the complements of its minimal hitting sets.
+     *
+     * @param useKernelDuality
+     *            {@code true} to use the kernel duality
+     */
+    public void setUseKernelDuality(boolean useKernelDuality) {
+        this.useKernelDuality = useKernelDuality;
+    }
+
+    /**
+     * Gets the maximum time of each entailment check.
+     *
+     * @return the timeout of the checks, in milliseconds, or {@code 0} for no
+     *         limit
+     */
+    public long getCheckTimeout() {
+        return checkTimeout;
+    }
+
+    /**
+     * Sets the maximum time of each entailment check. A check that runs out
+     * of time is interrupted and stops the operation.
+     *
+     * @param checkTimeout
+     *            the timeout of the checks, in milliseconds, or {@code 0} for
+     *            no limit
+     */
+    public void setCheckTimeout(long checkTimeout) {
+        this.checkTimeout = checkTimeout;
+    }
+
+    /**
+     * Gets the maximum time of the operation.
+     *
+     * @return the timeout of the operation, in milliseconds, or {@code 0} for
+     *         no limit
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the maximum time of the operation. When it runs out, the
+     * operation is computed from the elements of the remainder set found so far.
+     *
+     * @param timeout
+     *            the timeout of the operation, in milliseconds, or {@code 0}
+     *            for no limit
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the store of the results of previous computations.
+     *
+     * @return the result store, or {@code null} if the results are not
+     *         stored
+     */
+    public ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    /**
+     * Sets the store of the results of previous computations. The remainder
+     * set is read from it when it was computed before with the same
+     * configuration, and stored in it otherwise.
+     *
+     * @param resultStore
+     *            the result store, or {@code null} to disable it
+     */
+    public void setResultStore(ResultStore resultStore) {
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Gets whether the last operation has run out of time, in which case its
+     * result was computed from part of the remainder set only.
+     *
+     * @return {@code true} if the result is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
 }